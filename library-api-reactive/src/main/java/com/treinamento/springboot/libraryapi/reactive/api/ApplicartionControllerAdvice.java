@@ -0,0 +1,32 @@
+package com.treinamento.springboot.libraryapi.reactive.api;
+
+import com.treinamento.springboot.libraryapi.reactive.api.exception.ApiErros;
+import com.treinamento.springboot.libraryapi.reactive.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestControllerAdvice
+public class ApplicartionControllerAdvice {
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErros handleValidationExceptions(WebExchangeBindException ex) {
+        return new ApiErros(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErros handleBusinessExpection(BusinessException ex) {
+        return new ApiErros(ex);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiErros> handleResponseStatusException(ResponseStatusException ex) {
+        return new ResponseEntity<>(new ApiErros(ex), ex.getStatusCode());
+    }
+}
@@ -0,0 +1,23 @@
+package com.treinamento.springboot.libraryapi.reactive.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookDTO {
+
+    private Long id;
+    @NotEmpty
+    private String title;
+    @NotEmpty
+    private String author;
+    @NotEmpty
+    private String isbn;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+}
@@ -0,0 +1,32 @@
+package com.treinamento.springboot.libraryapi.reactive.api.exception;
+
+import com.treinamento.springboot.libraryapi.reactive.exception.BusinessException;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ApiErros {
+
+    private final List<String> errors;
+
+    public ApiErros(BindingResult bindingResult) {
+        this.errors = new ArrayList<>();
+        bindingResult.getAllErrors().forEach(error -> this.errors.add(error.getDefaultMessage()));
+    }
+
+    public ApiErros(BusinessException ex) {
+        this.errors = Arrays.asList(ex.getMessage());
+    }
+
+    public ApiErros(ResponseStatusException ex) {
+        this.errors = Arrays.asList(ex.getReason());
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.treinamento.springboot.libraryapi.reactive.api.resource;
+
+import com.treinamento.springboot.libraryapi.reactive.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.reactive.model.Book;
+import com.treinamento.springboot.libraryapi.reactive.service.BookService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookControler {
+
+    private final BookService bookService;
+
+    public BookControler(BookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> criar(@Valid @RequestBody BookDTO bookDTO) {
+        return bookService.save(toEntity(bookDTO)).map(BookControler::toDto);
+    }
+
+    @GetMapping("{id}")
+    public Mono<BookDTO> obterBook(@PathVariable Long id) {
+        return bookService
+                .getById(id)
+                .map(BookControler::toDto)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> removerBook(@PathVariable Long id) {
+        return bookService
+                .getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(bookService::delete);
+    }
+
+    @PutMapping("{id}")
+    public Mono<BookDTO> update(@PathVariable Long id, BookDTO bookDTO) {
+        return bookService
+                .getById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(entity -> {
+                    entity.setAuthor(bookDTO.getAuthor());
+                    entity.setTitle(bookDTO.getTitle());
+                    return bookService.update(entity);
+                })
+                .map(BookControler::toDto);
+    }
+
+    @GetMapping
+    public Mono<Page<BookDTO>> find(BookDTO bookDTO, Pageable pageable) {
+        return bookService.find(toEntity(bookDTO), pageable).map(page -> page.map(BookControler::toDto));
+    }
+
+    private static Book toEntity(BookDTO dto) {
+        return Book.builder()
+                .id(dto.getId())
+                .title(dto.getTitle())
+                .author(dto.getAuthor())
+                .isbn(dto.getIsbn())
+                .build();
+    }
+
+    private static BookDTO toDto(Book book) {
+        return new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getVersion());
+    }
+}
@@ -0,0 +1,39 @@
+package com.treinamento.springboot.libraryapi.reactive.api.resource;
+
+import com.treinamento.springboot.libraryapi.reactive.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.reactive.model.Loan;
+import com.treinamento.springboot.libraryapi.reactive.service.BookService;
+import com.treinamento.springboot.libraryapi.reactive.service.LoanService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    private final LoanService loanService;
+    private final BookService bookService;
+
+    public LoanController(LoanService loanService, BookService bookService) {
+        this.loanService = loanService;
+        this.bookService = bookService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> create(@RequestBody LoanDTO loanDTO) {
+        return bookService
+                .getBookByIsbn(loanDTO.getIsbn())
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isnb")))
+                .flatMap(book -> loanService.save(Loan.builder()
+                        .customer(loanDTO.getCustomer())
+                        .bookId(book.getId())
+                        .loanDate(LocalDate.now())
+                        .build()))
+                .map(Loan::getId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.treinamento.springboot.libraryapi.reactive.exception;
+
+public class BusinessException extends RuntimeException {
+    public BusinessException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,29 @@
+package com.treinamento.springboot.libraryapi.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("loan")
+public class Loan {
+
+    @Id
+    private Long id;
+    private String customer;
+    @Column("id_book")
+    private Long bookId;
+    private LocalDate loanDate;
+    private Boolean returned;
+    private Boolean overdue;
+    private Long activeBookId;
+}
@@ -0,0 +1,13 @@
+package com.treinamento.springboot.libraryapi.reactive.repository;
+
+import com.treinamento.springboot.libraryapi.reactive.model.Book;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface BookRepository extends R2dbcRepository<Book, Long> {
+    Mono<Boolean> existsByIsbn(String isbn);
+
+    Mono<Book> findByIsbn(String isbn);
+}
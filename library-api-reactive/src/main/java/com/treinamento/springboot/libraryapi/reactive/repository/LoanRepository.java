@@ -0,0 +1,13 @@
+package com.treinamento.springboot.libraryapi.reactive.repository;
+
+import com.treinamento.springboot.libraryapi.reactive.model.Loan;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface LoanRepository extends R2dbcRepository<Loan, Long> {
+    Mono<Boolean> existsByBookIdAndReturnedFalse(Long bookId);
+
+    Mono<Boolean> existsByBookId(Long bookId);
+}
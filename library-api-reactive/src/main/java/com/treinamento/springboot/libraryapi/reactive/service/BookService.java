@@ -0,0 +1,22 @@
+package com.treinamento.springboot.libraryapi.reactive.service;
+
+import com.treinamento.springboot.libraryapi.reactive.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public interface BookService {
+    Mono<Book> save(Book book);
+
+    Mono<Book> getById(Long id);
+
+    Mono<Void> delete(Book book);
+
+    Mono<Book> update(Book book);
+
+    Mono<Page<Book>> find(Book filter, Pageable pageable);
+
+    Mono<Book> getBookByIsbn(String isbn);
+}
@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.reactive.service;
+
+import com.treinamento.springboot.libraryapi.reactive.model.Loan;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public interface LoanService {
+    Mono<Loan> save(Loan loan);
+}
@@ -0,0 +1,77 @@
+package com.treinamento.springboot.libraryapi.reactive.service.impl;
+
+import com.treinamento.springboot.libraryapi.reactive.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.reactive.model.Book;
+import com.treinamento.springboot.libraryapi.reactive.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.reactive.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.reactive.service.BookService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class BookServiceImpl implements BookService {
+    private final BookRepository repository;
+    private final LoanRepository loanRepository;
+
+    public BookServiceImpl(BookRepository repository, LoanRepository loanRepository) {
+        this.repository = repository;
+        this.loanRepository = loanRepository;
+    }
+
+    @Override
+    public Mono<Book> save(Book book) {
+        return repository.existsByIsbn(book.getIsbn())
+                .flatMap(exists -> exists
+                        ? Mono.<Book>error(new BusinessException("Isbn já cadastrado"))
+                        : repository.save(book))
+                .onErrorMap(DataIntegrityViolationException.class, ex -> new BusinessException("Isbn já cadastrado"));
+    }
+
+    @Override
+    public Mono<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Void> delete(Book book) {
+        if (book == null || book.getId() == null) {
+            return Mono.error(new IllegalArgumentException("Book cant be null"));
+        }
+        return loanRepository.existsByBookId(book.getId())
+                .flatMap(hasLoans -> hasLoans
+                        ? Mono.<Void>error(new BusinessException("Book has loans"))
+                        : repository.delete(book))
+                .onErrorMap(DataIntegrityViolationException.class, ex -> new BusinessException("Book has loans"));
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        if (book == null || book.getId() == null) {
+            return Mono.error(new IllegalArgumentException("Book cant be null"));
+        }
+        return repository.save(book);
+    }
+
+    @Override
+    public Mono<Page<Book>> find(Book filter, Pageable pageable) {
+        Example<Book> example = Example.of(filter, ExampleMatcher
+                .matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        return repository.findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public Mono<Book> getBookByIsbn(String isbn) {
+        if (isbn == null) {
+            return Mono.empty();
+        }
+        return repository.findByIsbn(isbn);
+    }
+}
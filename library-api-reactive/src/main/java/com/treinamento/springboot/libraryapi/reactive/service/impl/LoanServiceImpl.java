@@ -0,0 +1,38 @@
+package com.treinamento.springboot.libraryapi.reactive.service.impl;
+
+import com.treinamento.springboot.libraryapi.reactive.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.reactive.model.Loan;
+import com.treinamento.springboot.libraryapi.reactive.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.reactive.service.LoanService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository repository;
+
+    public LoanServiceImpl(LoanRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<Loan> save(Loan loan) {
+        if (loan == null || loan.getBookId() == null) {
+            return Mono.error(new IllegalArgumentException("Loan must reference a book"));
+        }
+        if (loan.getReturned() == null) {
+            loan.setReturned(false);
+        }
+        if (loan.getOverdue() == null) {
+            loan.setOverdue(false);
+        }
+        loan.setActiveBookId(loan.getReturned() ? null : loan.getBookId());
+        return repository.existsByBookIdAndReturnedFalse(loan.getBookId())
+                .flatMap(loaned -> loaned
+                        ? Mono.<Loan>error(new BusinessException("Book already loaned"))
+                        : repository.save(loan))
+                .onErrorMap(DataIntegrityViolationException.class, ex -> new BusinessException("Book already loaned"));
+    }
+}
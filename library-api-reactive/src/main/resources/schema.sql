@@ -0,0 +1,19 @@
+create table if not exists book (
+    id bigint generated by default as identity primary key,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255) unique,
+    version bigint
+);
+
+create table if not exists loan (
+    id bigint generated by default as identity primary key,
+    customer varchar(100),
+    id_book bigint references book (id),
+    loan_date date,
+    returned boolean,
+    overdue boolean,
+    active_book_id bigint unique
+);
+
+create index if not exists idx_loan_returned_date on loan (returned, loan_date, id);
@@ -0,0 +1,169 @@
+package com.treinamento.springboot.libraryapi.reactive.api.resource;
+
+import com.treinamento.springboot.libraryapi.reactive.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.reactive.api.dto.LoanDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveLibraryApiTest {
+
+    static final String BOOK_API = "/api/books";
+    static final String LOAN_API = "/api/loans";
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @AfterEach
+    void limpar() {
+        databaseClient.sql("delete from loan").then()
+                .then(databaseClient.sql("delete from book").then())
+                .block();
+    }
+
+    @Test
+    void deveriaCriarLivroEObterPorId() {
+        // cenario
+        BookDTO dto = BookDTO.builder().title("As aventuras").author("Artur").isbn("001").build();
+
+        // execucao
+        BookDTO criado = client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class)
+                .returnResult().getResponseBody();
+
+        // verificacao
+        client.get().uri(BOOK_API + "/" + criado.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("title").isEqualTo("As aventuras")
+                .jsonPath("isbn").isEqualTo("001")
+                .jsonPath("version").isEqualTo(0);
+    }
+
+    @Test
+    void deveriaLancarErroDeValidacaoQuandoNaoHouverDadosSuficientes() {
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new BookDTO())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(3);
+    }
+
+    @Test
+    void deveriaLancarErroAoCadastrarLivroComIsbnDuplicado() {
+        // cenario
+        BookDTO dto = BookDTO.builder().title("As aventuras").author("Artur").isbn("001").build();
+        criar(dto);
+
+        // execucao / verificacao
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Isbn já cadastrado");
+    }
+
+    @Test
+    void deveriaRetornarNotFoundQuandoLivroNaoExistir() {
+        client.get().uri(BOOK_API + "/999")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri(BOOK_API + "/999")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deveriaAtualizarEFiltrarLivros() {
+        // cenario
+        BookDTO criado = criar(BookDTO.builder().title("As aventuras").author("Artur").isbn("001").build());
+        criar(BookDTO.builder().title("Outro").author("Maria").isbn("002").build());
+
+        // execucao
+        client.put().uri(BOOK_API + "/" + criado.getId() + "?title=Novo titulo&author=Artur")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("title").isEqualTo("Novo titulo")
+                .jsonPath("version").isEqualTo(1);
+
+        // verificacao
+        client.get().uri(BOOK_API + "?title=novo&page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].isbn").isEqualTo("001")
+                .jsonPath("totalElements").isEqualTo(1);
+    }
+
+    @Test
+    void deveriaRealizarEmprestimoUmaUnicaVez() {
+        // cenario
+        BookDTO book = criar(BookDTO.builder().title("As aventuras").author("Artur").isbn("001").build());
+        LoanDTO loan = LoanDTO.builder().isbn("001").customer("Fulano").build();
+
+        // execucao
+        client.post().uri(LOAN_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(loan)
+                .exchange()
+                .expectStatus().isCreated();
+
+        // verificacao
+        client.post().uri(LOAN_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(loan)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Book already loaned");
+
+        client.delete().uri(BOOK_API + "/" + book.getId())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Book has loans");
+    }
+
+    @Test
+    void deveriaRetornarErroAoRealizarEmprestimoDeLivroInexistente() {
+        client.post().uri(LOAN_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LoanDTO.builder().isbn("123").customer("Fulano").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Book not found for passed isnb");
+    }
+
+    private BookDTO criar(BookDTO dto) {
+        return client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class)
+                .returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,131 @@
+package com.treinamento.springboot.libraryapi.reactive.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the same read/write mix against the blocking API and this reactive variant and prints
+ * throughput and tail latency for each. Both servers must already be running; by default the
+ * blocking one on 8080 and the reactive one on 8081 ({@code load.targets} overrides that).
+ * Every client keeps exactly one request in flight, so {@code load.concurrency} is the number of
+ * simultaneous connections each server has to carry.
+ */
+public class ReactiveLoadComparison {
+
+    private static final String TARGETS = System.getProperty("load.targets",
+            "blocking=http://localhost:8080,reactive=http://localhost:8081");
+    private static final int CATALOG_SIZE = Integer.getInteger("load.books", 500);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+    private static final int WRITE_PERCENT = Integer.getInteger("load.writes", 10);
+
+    public static void main(String[] args) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        List<Result> results = new ArrayList<>();
+        for (String target : TARGETS.split(",")) {
+            String[] parts = target.split("=", 2);
+            String base = parts[1] + "/api/books";
+            long firstId = seed(http, base, parts[0]);
+            drive(http, base, firstId, Duration.ofSeconds(2));
+            results.add(drive(http, base, firstId, DURATION).named(parts[0]));
+        }
+        results.forEach(System.out::println);
+    }
+
+    private static long seed(HttpClient http, String base, String run) throws Exception {
+        long firstId = -1;
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String json = String.format("{\"title\":\"Livro %d\",\"author\":\"Autor %d\",\"isbn\":\"%s-%d-%d\"}",
+                    i, i % 50, run, System.nanoTime(), i);
+            HttpResponse<String> response = http.send(post(base, json), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("seed failed on " + base + ": " + response.body());
+            }
+            if (firstId < 0) {
+                String body = response.body();
+                int start = body.indexOf("\"id\":") + 5;
+                firstId = Long.parseLong(body.substring(start, body.indexOf(',', start)).trim());
+            }
+        }
+        return firstId;
+    }
+
+    private static Result drive(HttpClient http, String base, long firstId, Duration duration) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                long[] samples = new long[1 << 14];
+                latencies.add(samples);
+                clients.submit(() -> {
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        HttpRequest request;
+                        if (random.nextInt(100) < WRITE_PERCENT) {
+                            String json = String.format("{\"title\":\"Novo\",\"author\":\"Carga\",\"isbn\":\"w-%d-%d\"}",
+                                    System.nanoTime(), writes.incrementAndGet());
+                            request = post(base, json);
+                        } else {
+                            long id = firstId + random.nextLong(CATALOG_SIZE);
+                            request = HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build();
+                        }
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() < 300) {
+                                completed.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        samples[n++ & (samples.length - 1)] = System.nanoTime() - start;
+                    }
+                    return null;
+                });
+            }
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+        return new Result("warmup", completed.get() / (double) duration.toSeconds(), failed.get(),
+                percentile(all, 0.5), percentile(all, 0.99), percentile(all, 0.999));
+    }
+
+    private static HttpRequest post(String base, String json) {
+        return HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) (sorted.length * quantile)] / 1_000_000.0;
+    }
+
+    record Result(String mode, double throughput, long failed, double p50Millis, double p99Millis, double p999Millis) {
+
+        Result named(String name) {
+            return new Result(name, throughput, failed, p50Millis, p99Millis, p999Millis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %9.0f req/s  p50 %7.1f ms  p99 %7.1f ms  p99.9 %7.1f ms  failed %d",
+                    mode, throughput, p50Millis, p99Millis, p999Millis, failed);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.treinamento.springboot.libraryapi;
 
-import org.modelmapper.ModelMapper;
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
+import com.treinamento.springboot.libraryapi.api.mapper.LoanMapper;
+import org.mapstruct.factory.Mappers;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -13,8 +15,13 @@ public class LibraryApiApplication {
 	}
 
 	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
+	public BookMapper bookMapper() {
+		return Mappers.getMapper(BookMapper.class);
+	}
+
+	@Bean
+	public LoanMapper loanMapper() {
+		return Mappers.getMapper(LoanMapper.class);
 	}
 
 }
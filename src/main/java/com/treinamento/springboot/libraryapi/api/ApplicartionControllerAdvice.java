@@ -1,19 +1,43 @@
 package com.treinamento.springboot.libraryapi.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.treinamento.springboot.libraryapi.api.exception.ApiErros;
+import com.treinamento.springboot.libraryapi.api.exception.ErrorBodies;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestControllerAdvice
 public class ApplicartionControllerAdvice {
 
+    private final ErrorBodies errorBodies;
+
+    public ApplicartionControllerAdvice(HttpMessageConverters converters) {
+        Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+        for (HttpMessageConverter<?> converter : converters.getConverters()) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter jackson) {
+                mappers.putIfAbsent(jackson.getSupportedMediaTypes().get(0), jackson.getObjectMapper());
+            }
+        }
+        this.errorBodies = new ErrorBodies(mappers);
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErros handleValidationExceptions(MethodArgumentNotValidException ex) {
@@ -22,13 +46,18 @@ public class ApplicartionControllerAdvice {
     }
 
     @ExceptionHandler(BusinessException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiErros handleBusinessExpection(BusinessException ex) {
-        return new ApiErros(ex);
+    public ResponseEntity<byte[]> handleBusinessExpection(BusinessException ex, WebRequest request) {
+        return errorBodies.response(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        return errorBodies.response(HttpStatus.CONFLICT, "Book was changed by another request",
+                request.getHeader(HttpHeaders.ACCEPT));
     }
 
     @ExceptionHandler(ResponseStatusException.class)
-    public ResponseEntity handleResponseStatusException(ResponseStatusException ex) {
-        return new ResponseEntity(new ApiErros(ex), ex.getStatusCode());
+    public ResponseEntity<byte[]> handleResponseStatusException(ResponseStatusException ex, WebRequest request) {
+        return errorBodies.response(ex.getStatusCode(), ex.getReason(), request.getHeader(HttpHeaders.ACCEPT));
     }
 }
@@ -0,0 +1,20 @@
+package com.treinamento.springboot.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBulkDeleteDTO {
+
+    private List<Long> ids;
+    private String title;
+    private String author;
+    private String isbn;
+}
@@ -0,0 +1,17 @@
+package com.treinamento.springboot.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBulkDeleteResultDTO {
+
+    private long matched;
+    private long deleted;
+    private long skippedWithLoans;
+}
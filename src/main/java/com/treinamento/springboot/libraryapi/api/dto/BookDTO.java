@@ -1,5 +1,6 @@
 package com.treinamento.springboot.libraryapi.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
 
@@ -16,5 +17,7 @@ public class BookDTO {
     private String author;
     @NotEmpty
     private String isbn;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 
 }
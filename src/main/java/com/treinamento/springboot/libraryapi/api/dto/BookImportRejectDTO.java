@@ -0,0 +1,19 @@
+package com.treinamento.springboot.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportRejectDTO {
+
+    private long line;
+    private String isbn;
+    private List<String> errors;
+}
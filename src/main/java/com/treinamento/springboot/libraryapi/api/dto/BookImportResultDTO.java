@@ -0,0 +1,22 @@
+package com.treinamento.springboot.libraryapi.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+    private long processed;
+    private long imported;
+    private long rejected;
+    @Builder.Default
+    private List<BookImportRejectDTO> rejects = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package com.treinamento.springboot.libraryapi.api.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorSliceDTO<T>(List<T> content, String next) {
+
+    public <R> CursorSliceDTO<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorSliceDTO<>(content.stream().<R>map(mapper).toList(), next);
+    }
+}
@@ -1,16 +1,27 @@
 package com.treinamento.springboot.libraryapi.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class LoanDTO {
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
     private String isbn;
     private String customer;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDate loanDate;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Boolean returned;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BookDTO book;
 }
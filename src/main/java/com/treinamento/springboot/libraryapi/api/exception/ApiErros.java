@@ -6,6 +6,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class ApiErros {
@@ -17,6 +18,10 @@ public class ApiErros {
         bindingResult.getAllErrors().forEach(error -> this.errors.add(error.getDefaultMessage()));
     }
 
+    public ApiErros(String mensagem) {
+        this.errors = Collections.singletonList(mensagem);
+    }
+
     public ApiErros(BusinessException ex) {
         this.errors = Arrays.asList(ex.getMessage());
     }
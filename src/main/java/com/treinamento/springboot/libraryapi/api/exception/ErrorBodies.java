@@ -0,0 +1,114 @@
+package com.treinamento.springboot.libraryapi.api.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Corpos de erro de uma mensagem só ({@code {"errors":["..."]}}) já serializados, um cache por formato
+ * (JSON, CBOR, Smile). As mensagens das regras de negócio e dos 404 são fixas, então cada uma é serializada uma
+ * vez por formato; o limite evita que mensagens montadas com dados da requisição encham o cache.
+ */
+public class ErrorBodies {
+
+    static final int MAX_CACHED = 256;
+
+    private final List<Format> formats = new ArrayList<>();
+
+    public ErrorBodies(ObjectMapper objectMapper) {
+        this(Map.of(MediaType.APPLICATION_JSON, objectMapper));
+    }
+
+    /**
+     * @param mappers mapeador de cada tipo de mídia; o primeiro é o usado quando o {@code Accept} não escolhe.
+     */
+    public ErrorBodies(Map<MediaType, ObjectMapper> mappers) {
+        new LinkedHashMap<>(mappers).forEach((mediaType, mapper) -> formats.add(new Format(mediaType, mapper)));
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one error body format is required");
+        }
+    }
+
+    public ResponseEntity<byte[]> response(HttpStatusCode status, String message) {
+        return response(status, message, null);
+    }
+
+    public ResponseEntity<byte[]> response(HttpStatusCode status, String message, String accept) {
+        Format format = negotiate(accept);
+        return ResponseEntity.status(status).contentType(format.mediaType).body(format.body(message));
+    }
+
+    byte[] body(String message) {
+        return formats.get(0).body(message);
+    }
+
+    private Format negotiate(String accept) {
+        if (accept == null || accept.isBlank() || formats.size() == 1) {
+            return formats.get(0);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return formats.get(0);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            for (Format format : formats) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return formats.get(0);
+    }
+
+    private static final class Format {
+
+        private final MediaType mediaType;
+        private final ObjectMapper objectMapper;
+        private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+        private final byte[] withoutMessage;
+
+        private Format(MediaType mediaType, ObjectMapper objectMapper) {
+            this.mediaType = mediaType;
+            this.objectMapper = objectMapper;
+            this.withoutMessage = serialize(null);
+        }
+
+        private byte[] body(String message) {
+            if (message == null) {
+                return withoutMessage;
+            }
+            byte[] body = bodies.get(message);
+            if (body == null) {
+                body = serialize(message);
+                if (bodies.size() < MAX_CACHED) {
+                    bodies.putIfAbsent(message, body);
+                }
+            }
+            return body;
+        }
+
+        private byte[] serialize(String message) {
+            try {
+                return objectMapper.writeValueAsBytes(new ApiErros(message));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
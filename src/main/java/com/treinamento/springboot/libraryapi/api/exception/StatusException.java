@@ -0,0 +1,23 @@
+package com.treinamento.springboot.libraryapi.api.exception;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * {@link ResponseStatusException} sem stack trace, para respostas esperadas como o 404 de um livro inexistente.
+ */
+public class StatusException extends ResponseStatusException {
+
+    public StatusException(HttpStatusCode status) {
+        super(status);
+    }
+
+    public StatusException(HttpStatusCode status, String reason) {
+        super(status, reason);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
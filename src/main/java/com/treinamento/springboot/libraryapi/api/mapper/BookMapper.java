@@ -0,0 +1,13 @@
+package com.treinamento.springboot.libraryapi.api.mapper;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import org.mapstruct.Mapper;
+
+@Mapper
+public interface BookMapper {
+
+    BookDTO toDto(Book book);
+
+    Book toEntity(BookDTO bookDTO);
+}
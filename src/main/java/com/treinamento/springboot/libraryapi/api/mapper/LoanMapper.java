@@ -0,0 +1,21 @@
+package com.treinamento.springboot.libraryapi.api.mapper;
+
+import com.treinamento.springboot.libraryapi.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(uses = BookMapper.class)
+public interface LoanMapper {
+
+    @Mapping(target = "isbn", source = "book.isbn")
+    LoanDTO toDto(Loan loan);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "book", ignore = true)
+    @Mapping(target = "loanDate", ignore = true)
+    @Mapping(target = "returned", ignore = true)
+    @Mapping(target = "overdue", ignore = true)
+    @Mapping(target = "activeBookId", ignore = true)
+    Loan toEntity(LoanDTO loanDTO);
+}
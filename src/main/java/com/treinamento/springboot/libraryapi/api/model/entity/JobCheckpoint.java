@@ -0,0 +1,32 @@
+package com.treinamento.springboot.libraryapi.api.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+    @Column
+    private LocalDate lastLoanDate;
+    @Column
+    private Long lastLoanId;
+    @Column
+    private LocalDateTime updatedAt;
+}
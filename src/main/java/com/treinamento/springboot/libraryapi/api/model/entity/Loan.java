@@ -1,5 +1,6 @@
 package com.treinamento.springboot.libraryapi.api.model.entity;
 
+import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,11 +12,43 @@ import java.time.LocalDate;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Loan.ACTIVE_BOOK_CONSTRAINT, columnNames = "activeBookId"),
+        indexes = {
+                @Index(name = "idx_loan_returned_date", columnList = "returned, loanDate, id"),
+                @Index(name = "idx_loan_book_returned", columnList = "id_book, returned"),
+                @Index(name = "idx_loan_customer_date", columnList = "customer, loanDate"),
+                @Index(name = "idx_loan_date_id", columnList = "loanDate, id")
+        })
 public class Loan {
 
+    /**
+     * Constraint que impede dois empréstimos abertos do mesmo livro; mesmo nome no schema.sql.
+     */
+    public static final String ACTIVE_BOOK_CONSTRAINT = "uk_loan_active_book";
+
+    @Id
+    @Column
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
+    @Column(length = 100)
     private String customer;
+    @JoinColumn(name = "id_book")
+    @ManyToOne(fetch = FetchType.LAZY)
     private Book book;
+    @Column
     private LocalDate loanDate;
+    @Column
     private Boolean returned;
+    @Column
+    private Boolean overdue;
+    @Column
+    private Long activeBookId;
+
+    @PrePersist
+    @PreUpdate
+    void syncActiveBook() {
+        this.activeBookId = Boolean.TRUE.equals(returned) || book == null ? null : book.getId();
+    }
 }
@@ -0,0 +1,8 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+public interface BookIsbnView {
+
+    Long getId();
+
+    String getIsbn();
+}
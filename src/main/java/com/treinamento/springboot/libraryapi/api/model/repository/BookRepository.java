@@ -1,10 +1,66 @@
 package com.treinamento.springboot.libraryapi.api.model.repository;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
     boolean existsByIsbn(String isbn);
+
+    Optional<Book> findByIsbn(String isbn);
+
+    @Query("select new com.treinamento.springboot.libraryapi.api.dto.BookDTO(b.id, b.title, b.author, b.isbn, b.version) "
+            + "from Book b where b.id = :id")
+    @Transactional(readOnly = true)
+    Optional<BookDTO> findViewById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("update Book b set b.title = :title, b.author = :author, b.version = b.version + 1 "
+            + "where b.id = :id and b.version = :version")
+    int updateTitleAndAuthor(@Param("id") Long id, @Param("version") Long version,
+                             @Param("title") String title, @Param("author") String author);
+
+    @Modifying
+    @Query("delete from Book b where b.id in :ids and not exists (select l.id from Loan l where l.book = b)")
+    int deleteWithoutLoans(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id from Book b where b.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("select b.id as id, b.isbn as isbn from Book b")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookIsbnView> streamIsbnIndex();
+
+    @Query("select b from Book b order by b.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Book> streamAll();
+
+    @Query("select b.id as id, b.version as version from Book b")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookVersionView> streamVersionIndex();
+
+    @Query("select b.id as id, b.title as title, b.author as author from Book b order by b.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<BookSearchView> streamSearchIndex();
 }
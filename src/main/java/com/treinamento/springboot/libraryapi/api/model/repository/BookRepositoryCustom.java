@@ -0,0 +1,29 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.service.io.BookCursor;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BookRepositoryCustom {
+    List<Book> findAfter(Example<Book> example, Sort.Order order, BookCursor after, int limit);
+
+    Page<BookDTO> findViews(Specification<Book> specification, Pageable pageable);
+
+    List<BookDTO> findViewContent(Specification<Book> specification, Pageable pageable);
+
+    Slice<BookDTO> findViewSlice(Specification<Book> specification, Pageable pageable);
+
+    long countMatching(Specification<Book> specification);
+
+    long countUpTo(Specification<Book> specification, int limit);
+
+    List<BookDTO> findViewsAfter(Specification<Book> specification, Long afterId, int limit);
+}
@@ -0,0 +1,191 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.service.io.BookCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaOrder;
+import org.hibernate.query.sqm.NullPrecedence;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final Timer countTimer;
+
+    public BookRepositoryCustomImpl(EntityManager entityManager, ObjectProvider<MeterRegistry> registry) {
+        this.entityManager = entityManager;
+        this.countTimer = Timer.builder("library.book.count")
+                .description("Count query executed to build a page of books")
+                .register(registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Override
+    public List<Book> findAfter(Example<Book> example, Sort.Order order, BookCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = cb.createQuery(Book.class);
+        Root<Book> book = query.from(Book.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = QueryByExamplePredicateBuilder.getPredicate(book, cb, example, EscapeCharacter.DEFAULT);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+
+        Path<Long> id = book.get("id");
+        boolean ascending = order.isAscending();
+        if ("id".equals(order.getProperty())) {
+            if (after != null) {
+                predicates.add(ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id()));
+            }
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            // nulos sempre no fim: depois de um valor vêm os maiores (ou menores), os iguais com id seguinte e os
+            // nulos; dentro dos nulos só o id avança
+            Path<String> key = book.get(order.getProperty());
+            if (after != null) {
+                Predicate beyondId = ascending ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id());
+                if (after.value() == null) {
+                    predicates.add(cb.and(cb.isNull(key), beyondId));
+                } else {
+                    Predicate beyondKey = ascending ? cb.greaterThan(key, after.value()) : cb.lessThan(key, after.value());
+                    predicates.add(cb.or(beyondKey, cb.and(cb.equal(key, after.value()), beyondId), cb.isNull(key)));
+                }
+            }
+            JpaOrder keyOrder = (JpaOrder) (ascending ? cb.asc(key) : cb.desc(key));
+            query.orderBy(keyOrder.nullPrecedence(NullPrecedence.LAST), ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        query.select(book).where(predicates.toArray(new Predicate[0]));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookDTO> findViews(Specification<Book> specification, Pageable pageable) {
+        List<BookDTO> content = findViewContent(specification, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(specification));
+    }
+
+    @Override
+    public List<BookDTO> findViewContent(Specification<Book> specification, Pageable pageable) {
+        TypedQuery<BookDTO> query = viewQuery(specification, pageable);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Página sem total: lê uma linha além do tamanho pedido só para saber se há próxima.
+     */
+    @Override
+    public Slice<BookDTO> findViewSlice(Specification<Book> specification, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(viewQuery(specification, pageable).getResultList(), pageable, false);
+        }
+        List<BookDTO> rows = viewQuery(specification, pageable)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countMatching(Specification<Book> specification) {
+        long start = System.nanoTime();
+        try {
+            return executeCount(specification);
+        } finally {
+            countTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Conta no máximo {@code limit} livros, parando a leitura ao chegar nele em vez de percorrer todo o filtro.
+     */
+    @Override
+    public long countUpTo(Specification<Book> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(book.get("id"));
+        Predicate filter = specification.toPredicate(book, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().size();
+    }
+
+    private TypedQuery<BookDTO> viewQuery(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookDTO> query = cb.createQuery(BookDTO.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.construct(BookDTO.class, book.get("id"), book.get("title"), book.get("author"), book.get("isbn"),
+                book.get("version")));
+        Predicate filter = specification.toPredicate(book, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), book, cb));
+        return entityManager.createQuery(query);
+    }
+
+    @Override
+    public List<BookDTO> findViewsAfter(Specification<Book> specification, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookDTO> query = cb.createQuery(BookDTO.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.construct(BookDTO.class, book.get("id"), book.get("title"), book.get("author"), book.get("isbn"),
+                book.get("version")));
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = specification.toPredicate(book, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        Path<Long> id = book.get("id");
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(id, afterId));
+        }
+        query.where(predicates.toArray(new Predicate[0])).orderBy(cb.asc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private long executeCount(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.count(book));
+        Predicate filter = specification.toPredicate(book, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
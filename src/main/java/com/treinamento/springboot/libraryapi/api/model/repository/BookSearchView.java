@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+public interface BookSearchView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getAuthor();
+}
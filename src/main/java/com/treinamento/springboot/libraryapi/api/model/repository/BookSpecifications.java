@@ -0,0 +1,54 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+
+import java.util.Collection;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Filtro por exemplo usado nas buscas: campos nulos ignorados, texto contido e sem diferenciar maiúsculas.
+     */
+    public static Example<Book> example(Book filter) {
+        return Example.of(filter, ExampleMatcher
+                .matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    public static Specification<Book> matching(Example<Book> example) {
+        return (root, query, cb) -> QueryByExamplePredicateBuilder.getPredicate(root, cb, example, EscapeCharacter.DEFAULT);
+    }
+
+    public static Specification<Book> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Book> idNotIn(Collection<Long> ids) {
+        return (root, query, cb) -> cb.not(root.get("id").in(ids));
+    }
+
+    /**
+     * Livros com ({@code loaned}) ou sem empréstimo em aberto, pela coluna única {@code activeBookId}.
+     */
+    public static Specification<Book> loaned(boolean loaned) {
+        return (root, query, cb) -> {
+            Subquery<Long> active = query.subquery(Long.class);
+            Root<Loan> loan = active.from(Loan.class);
+            active.select(loan.get("activeBookId")).where(cb.equal(loan.get("activeBookId"), root.get("id")));
+            return loaned ? cb.exists(active) : cb.not(cb.exists(active));
+        };
+    }
+}
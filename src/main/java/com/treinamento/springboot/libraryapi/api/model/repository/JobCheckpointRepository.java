@@ -0,0 +1,9 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
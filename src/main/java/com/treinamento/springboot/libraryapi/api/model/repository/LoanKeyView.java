@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import java.time.LocalDate;
+
+public interface LoanKeyView {
+
+    Long getId();
+
+    LocalDate getLoanDate();
+}
@@ -0,0 +1,52 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long>, LoanRepositoryCustom {
+    boolean existsByBookAndReturnedFalse(Book book);
+
+    @Query("select l.activeBookId from Loan l where l.activeBookId in :bookIds")
+    Set<Long> findActiveBookIds(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("select l from Loan l join fetch l.book where l.id = :id")
+    Optional<Loan> findWithBookById(@Param("id") Long id);
+
+    @Query("select l.activeBookId from Loan l where l.activeBookId is not null")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamActiveBookIds();
+
+    @Query("select distinct l.book.id from Loan l where l.book.id in :bookIds")
+    Set<Long> findBookIdsWithLoans(@Param("bookIds") Collection<Long> bookIds);
+
+    @Query("select l.id as id, l.loanDate as loanDate from Loan l "
+            + "where l.returned = false and l.loanDate < :cutoff "
+            + "and (l.loanDate > :afterDate or (l.loanDate = :afterDate and l.id > :afterId)) "
+            + "order by l.loanDate, l.id")
+    List<LoanKeyView> findUnreturnedKeysAfter(@Param("cutoff") LocalDate cutoff,
+                                              @Param("afterDate") LocalDate afterDate,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("update Loan l set l.overdue = true where l.id in :ids and l.returned = false")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+}
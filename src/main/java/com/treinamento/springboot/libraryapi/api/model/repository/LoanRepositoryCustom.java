@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.service.io.LoanCursor;
+
+import java.util.List;
+
+public interface LoanRepositoryCustom {
+    List<Loan> findAfter(Long bookId, String customer, Boolean returned, LoanCursor after, int limit);
+}
@@ -0,0 +1,59 @@
+package com.treinamento.springboot.libraryapi.api.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.service.io.LoanCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoanRepositoryCustomImpl implements LoanRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public LoanRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Empréstimos com o livro no mesmo select (fetch join), do mais recente para o mais antigo. Os filtros são
+     * por igualdade para aproveitar os índices (id_book, returned) e (customer, loan_date); sem filtro, a página sai
+     * do índice (loan_date, id) lido de trás para frente, sem ordenar a tabela.
+     */
+    @Override
+    public List<Loan> findAfter(Long bookId, String customer, Boolean returned, LoanCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Loan> query = cb.createQuery(Loan.class);
+        Root<Loan> loan = query.from(Loan.class);
+        loan.fetch("book", JoinType.INNER);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (bookId != null) {
+            predicates.add(cb.equal(loan.get("book").get("id"), bookId));
+        }
+        if (customer != null) {
+            predicates.add(cb.equal(loan.get("customer"), customer));
+        }
+        if (returned != null) {
+            predicates.add(cb.equal(loan.get("returned"), returned));
+        }
+
+        Path<LocalDate> loanDate = loan.get("loanDate");
+        Path<Long> id = loan.get("id");
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(loanDate, after.loanDate()),
+                    cb.and(cb.equal(loanDate, after.loanDate()), cb.lessThan(id, after.id()))));
+        }
+
+        query.select(loan).where(predicates.toArray(new Predicate[0])).orderBy(cb.desc(loanDate), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
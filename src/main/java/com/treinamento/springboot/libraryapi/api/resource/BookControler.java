@@ -1,50 +1,109 @@
 package com.treinamento.springboot.libraryapi.api.resource;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteResultDTO;
 import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportResultDTO;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.exception.ApiErros;
+import com.treinamento.springboot.libraryapi.api.exception.StatusException;
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.config.MappingMetrics;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.BookBulkDeleteService;
+import com.treinamento.springboot.libraryapi.service.BookExportService;
+import com.treinamento.springboot.libraryapi.service.BookImportService;
 import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import com.treinamento.springboot.libraryapi.service.io.BookPage;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookControler {
 
+    static final String TOTAL_KIND = "X-Total-Kind";
+
     private BookService bookService;
-    private ModelMapper modelMapper;
+    private BookImportService bookImportService;
+    private BookExportService bookExportService;
+    private BookBulkDeleteService bookBulkDeleteService;
+    private BookMapper bookMapper;
+    private MappingMetrics mappingMetrics;
+    private Duration exportTimeout;
 
-    public BookControler(BookService bookService, ModelMapper modelMapper) {
+    public BookControler(BookService bookService, BookImportService bookImportService,
+                         BookExportService bookExportService, BookBulkDeleteService bookBulkDeleteService,
+                         BookMapper bookMapper, MappingMetrics mappingMetrics,
+                         @Value("${library.books.export.timeout:30m}") Duration exportTimeout) {
         this.bookService = bookService;
-        this.modelMapper = modelMapper;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.bookBulkDeleteService = bookBulkDeleteService;
+        this.bookMapper = bookMapper;
+        this.mappingMetrics = mappingMetrics;
+        this.exportTimeout = exportTimeout;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public BookDTO criar(@Valid @RequestBody BookDTO bookDTO) {
-        Book entity = modelMapper.map(bookDTO, Book.class);
+        Book entity = bookMapper.toEntity(bookDTO);
         entity = bookService.save(entity);
-        return modelMapper.map(entity, BookDTO.class);
+        return bookMapper.toDto(entity);
+    }
+
+    @PostMapping(value = "import", consumes = {BookFormat.NDJSON_VALUE, BookFormat.CSV_VALUE})
+    public BookImportResultDTO importar(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        return bookImportService.importBooks(body, BookFormat.of(contentType));
+    }
+
+    /**
+     * A exportação escreve direto na resposta em outra thread, com um prazo próprio: o catálogo inteiro pode levar
+     * minutos, mas os demais pedidos assíncronos continuam com o timeout padrão.
+     */
+    @GetMapping(value = "export", produces = {BookFormat.NDJSON_VALUE, BookFormat.CSV_VALUE})
+    public WebAsyncTask<Void> exportar(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = BookFormat.NDJSON_VALUE) String accept,
+            HttpServletResponse response) {
+        BookFormat format = BookFormat.accepting(accept);
+        response.setContentType(format.getMediaType().toString());
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            bookExportService.exportBooks(response.getOutputStream(), format);
+            return null;
+        });
     }
 
     @GetMapping("{id}")
-    public BookDTO obterBook(@PathVariable Long id) {
-        return bookService
-                .getById(id)
-                .map(book -> modelMapper.map(book, BookDTO.class))
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    public ResponseEntity<BookDTO> obterBook(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = bookService.getVersion(id);
+        if (version.isPresent() && request.checkNotModified(strongEtag(version.get()))) {
+            return null;
+        }
+        BookDTO book = bookService
+                .getView(id)
+                .orElseThrow(() -> new StatusException(HttpStatus.NOT_FOUND));
+        return ResponseEntity.ok().eTag(strongEtag(book.getVersion())).body(book);
     }
 
     @DeleteMapping("{id}")
@@ -52,30 +111,92 @@ public class BookControler {
     public void removerBook(@PathVariable Long id) {
         Book book = bookService
                 .getById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+                .orElseThrow(() -> new StatusException(HttpStatus.NOT_FOUND));
         bookService.delete(book);
     }
 
-    @PutMapping("{id}")
-    public BookDTO update(@PathVariable Long id, BookDTO bookDTO) {
-        return bookService.getById(id).map(entity -> {
-                entity.setAuthor(bookDTO.getAuthor());
-                entity.setTitle(bookDTO.getTitle());
-                entity = bookService.update(entity);
-                return modelMapper.map(entity, BookDTO.class);
-            })
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    @PostMapping("bulk-delete")
+    public BookBulkDeleteResultDTO removerBooks(@RequestBody BookBulkDeleteDTO request) {
+        return bookBulkDeleteService.deleteBooks(request);
+    }
 
+    /**
+     * Com a versão esperada enviada pelo cliente (If-Match ou parâmetro {@code version}) a alteração é um único
+     * UPDATE condicional e um conflito vira 409; sem pré-condição do cliente, carrega e salva a entidade.
+     */
+    @PutMapping("{id}")
+    public ResponseEntity<BookDTO> update(@PathVariable Long id, BookDTO bookDTO,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Optional<Long> expectedVersion = versionOf(ifMatch)
+                .or(() -> Optional.ofNullable(bookDTO.getVersion()));
+        Book updated;
+        if (expectedVersion.isPresent()) {
+            updated = bookService
+                    .update(id, expectedVersion.get(), bookDTO.getTitle(), bookDTO.getAuthor())
+                    .orElseThrow(() -> new StatusException(HttpStatus.NOT_FOUND));
+        } else {
+            updated = bookService.getById(id).map(entity -> {
+                    entity.setAuthor(bookDTO.getAuthor());
+                    entity.setTitle(bookDTO.getTitle());
+                    return bookService.update(entity);
+                })
+            .orElseThrow(() -> new StatusException(HttpStatus.NOT_FOUND));
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (updated.getVersion() != null) {
+            response.eTag(strongEtag(updated.getVersion()));
+        }
+        return response.body(bookMapper.toDto(updated));
     }
 
+    /**
+     * {@code total=exact|estimate|none} escolhe o total da página; sem o parâmetro, filtros comuns recebem o total
+     * exato e os raros uma estimativa. O tipo devolvido vai no cabeçalho {@value #TOTAL_KIND}: {@code exact},
+     * {@code lower_bound} (a estimativa parou de contar) ou {@code none}.
+     */
     @GetMapping
-    public Page<BookDTO> find(BookDTO bookDTO, Pageable pageable) {
-        Book filter = modelMapper.map(bookDTO, Book.class);
-        Page<Book> resultado = bookService.find(filter, pageable);
-        List<BookDTO> list = resultado.getContent().stream()
-                .map(entity -> modelMapper.map(entity, BookDTO.class))
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(list, pageable, resultado.getTotalElements());
+    public ResponseEntity<Slice<BookDTO>> find(BookDTO bookDTO, @RequestParam(required = false) Boolean available,
+                                               @RequestParam(required = false) String total, Pageable pageable) {
+        Book filter = bookMapper.toEntity(bookDTO);
+        BookPage page = bookService.findViews(filter, available, pageable, BookTotal.of(total));
+        return ResponseEntity.ok()
+                .eTag(weakEtag(page.books()))
+                .header(TOTAL_KIND, page.total().value())
+                .body(page.books());
+    }
+
+    private static String strongEtag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static Optional<Long> versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return Optional.empty();
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new StatusException(HttpStatus.PRECONDITION_FAILED, "If-Match deve ser uma ETag forte do livro");
+        }
+        try {
+            return Optional.of(Long.parseLong(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException e) {
+            throw new StatusException(HttpStatus.PRECONDITION_FAILED, "If-Match deve ser uma ETag forte do livro");
+        }
+    }
+
+    private static String weakEtag(Slice<BookDTO> page) {
+        long hash = page instanceof Page<BookDTO> counted ? counted.getTotalElements() : page.hasNext() ? 1 : 0;
+        for (BookDTO book : page.getContent()) {
+            hash = 31 * hash + Objects.hashCode(book.getId());
+            hash = 31 * hash + Objects.hashCode(book.getVersion());
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    @GetMapping(params = "cursor")
+    public CursorSliceDTO<BookDTO> findAfter(BookDTO bookDTO, @RequestParam String cursor, Pageable pageable) {
+        Book filter = bookMapper.toEntity(bookDTO);
+        CursorSliceDTO<Book> page = bookService.findAfter(filter, cursor, pageable.getSort(), pageable.getPageSize());
+        return mappingMetrics.time("books.findAfter", () -> page.map(bookMapper::toDto));
     }
 }
@@ -1,13 +1,21 @@
 package com.treinamento.springboot.libraryapi.api.resource;
 
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.api.dto.ReturnedLoanDTO;
+import com.treinamento.springboot.libraryapi.api.exception.StatusException;
+import com.treinamento.springboot.libraryapi.api.mapper.LoanMapper;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
 import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.config.MappingMetrics;
 import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.LoanQueryService;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
 import com.treinamento.springboot.libraryapi.service.LoanService;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 
@@ -16,11 +24,20 @@ import java.time.LocalDate;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanQueryService loanQueryService;
     private final BookService bookService;
+    private final LoanedBooks loanedBooks;
+    private final LoanMapper loanMapper;
+    private final MappingMetrics mappingMetrics;
 
-    public LoanController(LoanService loanService, BookService bookService) {
+    public LoanController(LoanService loanService, LoanQueryService loanQueryService, BookService bookService,
+                          LoanedBooks loanedBooks, LoanMapper loanMapper, MappingMetrics mappingMetrics) {
         this.loanService = loanService;
+        this.loanQueryService = loanQueryService;
         this.bookService = bookService;
+        this.loanedBooks = loanedBooks;
+        this.loanMapper = loanMapper;
+        this.mappingMetrics = mappingMetrics;
     }
 
     @PostMapping
@@ -28,14 +45,37 @@ public class LoanController {
     public Long create(@RequestBody LoanDTO loanDTO) {
         Book book = bookService
                 .getBookByIsbn(loanDTO.getIsbn())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isnb"));
+                .orElseThrow(() -> new StatusException(HttpStatus.BAD_REQUEST, "Book not found for passed isnb"));
+        if (loanedBooks.isLoaned(book.getId()).orElse(false)) {
+            throw new BusinessException("Book already loaned");
+        }
 
-        Loan entity = Loan.builder()
-                .book(book)
-                .customer(loanDTO.getCustomer())
-                .loanDate(LocalDate.now()).build();
+        Loan entity = loanMapper.toEntity(loanDTO);
+        entity.setBook(book);
+        entity.setLoanDate(LocalDate.now());
 
         entity = loanService.save(entity);
         return entity.getId();
     }
+
+    @PatchMapping("{id}")
+    public LoanDTO returnBook(@PathVariable Long id, @RequestBody ReturnedLoanDTO dto) {
+        if (!Boolean.TRUE.equals(dto.getReturned())) {
+            throw new BusinessException("Loan can only be marked as returned");
+        }
+        return loanService
+                .returnLoan(id)
+                .map(loanMapper::toDto)
+                .orElseThrow(() -> new StatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping
+    public CursorSliceDTO<LoanDTO> find(@RequestParam(required = false) String isbn,
+                                        @RequestParam(required = false) String customer,
+                                        @RequestParam(required = false) Boolean returned,
+                                        @RequestParam(required = false) String cursor,
+                                        Pageable pageable) {
+        CursorSliceDTO<Loan> page = loanQueryService.find(isbn, customer, returned, cursor, pageable.getPageSize());
+        return mappingMetrics.time("loans.find", () -> page.map(loanMapper::toDto));
+    }
 }
@@ -0,0 +1,47 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import com.treinamento.springboot.libraryapi.config.datasource.ReplicaRoutingConfig;
+import com.treinamento.springboot.libraryapi.service.impl.GroupCommitLoanService;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Propriedades que ligam beans por {@code @ConditionalOnProperty}. No jar do perfil {@code startup} o AOT avalia
+ * essas condições no build, então mudá-las só na execução não tem efeito; {@link #verify} compara o valor atual de
+ * cada uma com os beans que de fato existem e falha a subida quando divergem.
+ */
+public final class AotSwitches {
+
+    private static final Map<String, Switch> SWITCHES = Map.of(
+            "library.threads.virtual.enabled", new Switch(VirtualThreadConfig.class, "true"::equalsIgnoreCase, false),
+            "library.scheduling.enabled", new Switch(SchedulingConfig.Enabled.class, "true"::equalsIgnoreCase, true),
+            "library.datasource.replica.url", new Switch(ReplicaRoutingConfig.class, value -> !value.isEmpty(), false),
+            "library.loans.group-commit.enabled", new Switch(GroupCommitLoanService.class, "true"::equalsIgnoreCase, false));
+
+    private AotSwitches() {
+    }
+
+    public static void verify(ListableBeanFactory beanFactory, Environment environment) {
+        List<String> frozen = new ArrayList<>();
+        SWITCHES.forEach((property, flag) -> {
+            String value = environment.getProperty(property);
+            boolean expected = value == null ? flag.matchIfMissing() : flag.enabled().test(value);
+            boolean present = beanFactory.getBeanNamesForType(flag.type(), true, false).length > 0;
+            if (expected != present) {
+                frozen.add(property + (present ? " (ligado no build)" : " (desligado no build)"));
+            }
+        });
+        if (!frozen.isEmpty()) {
+            throw new IllegalStateException("Propriedades avaliadas no build AOT mudaram na execução: "
+                    + String.join(", ", frozen) + ". Gere o jar de novo com os mesmos valores no process-aot.");
+        }
+    }
+
+    private record Switch(Class<?> type, Predicate<String> enabled, boolean matchIfMissing) {
+    }
+}
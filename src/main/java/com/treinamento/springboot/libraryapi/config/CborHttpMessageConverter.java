@@ -0,0 +1,20 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * CBOR ({@code application/cbor}) para os chamadores internos, negociado por {@code Accept}/{@code Content-Type}.
+ * O mapeador sai do mesmo builder do JSON, então segue as propriedades {@code spring.jackson.*} (datas ISO, por
+ * exemplo). Substitui o conversor CBOR padrão do Spring MVC, que usa um builder sem essas propriedades; o JSON
+ * continua sendo o padrão para {@code Accept: *}{@code /*}.
+ */
+@Component
+public class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    public CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,31 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Tempo dos mapeamentos entidade/DTO, medido uma vez por página ou requisição em cada ponto de chamada
+ * ({@code site}), e não a cada item convertido: um timer por item custaria mais que a própria conversão.
+ */
+@Component
+public class MappingMetrics {
+
+    static final String MAPPING_TIMER = "library.mapping";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MappingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> T time(String site, Supplier<T> mapping) {
+        return timers.computeIfAbsent(site, key -> Timer.builder(MAPPING_TIMER).tag("site", key).register(registry))
+                .record(mapping);
+    }
+}
@@ -0,0 +1,41 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import com.treinamento.springboot.libraryapi.api.resource.BookControler;
+import com.treinamento.springboot.libraryapi.api.resource.LoanController;
+import com.treinamento.springboot.libraryapi.service.job.OverdueLoanJob;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Perfil {@code startup}: tudo é inicializado sob demanda, menos os controllers (que puxam serviços,
+ * índices e repositórios do caminho de leitura) e o job agendado, que só é registrado no scheduler
+ * quando o bean é criado. Sob AOT confere também as propriedades congeladas no build ({@link AotSwitches}).
+ */
+@Configuration
+@Profile("startup")
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPath() {
+        return LazyInitializationExcludeFilter.forBeanTypes(BookControler.class, LoanController.class, OverdueLoanJob.class);
+    }
+
+    /**
+     * Com os artefatos AOT as condições por propriedade já foram decididas no build; falha a subida se alguma delas
+     * mudou desde então, em vez de ignorar a mudança em silêncio.
+     */
+    @Bean
+    public SmartInitializingSingleton aotSwitchesCheck(ListableBeanFactory beanFactory, Environment environment) {
+        return () -> {
+            if (AotDetector.useGeneratedArtifacts()) {
+                AotSwitches.verify(beanFactory, environment);
+            }
+        };
+    }
+}
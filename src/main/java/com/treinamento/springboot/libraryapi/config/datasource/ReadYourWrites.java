@@ -0,0 +1,30 @@
+package com.treinamento.springboot.libraryapi.config.datasource;
+
+/**
+ * Prazo, por thread, até o qual as leituras continuam no primário depois de uma escrita do mesmo chamador.
+ * Preenchido pelo {@link ReplicaRoutingDataSource} no commit e pelo {@link ReadYourWritesFilter} a partir do
+ * cookie da requisição.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinUntil(long epochMillis) {
+        Long current = PRIMARY_UNTIL.get();
+        if (current == null || current < epochMillis) {
+            PRIMARY_UNTIL.set(epochMillis);
+        }
+    }
+
+    public static boolean isPinned() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+}
@@ -0,0 +1,48 @@
+package com.treinamento.springboot.libraryapi.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Fixa no primário as requisições de um cliente que escreveu há pouco, pelo cookie posto no commit da escrita.
+ * O prazo do cookie vem do cliente, então nunca passa de agora mais a janela de read-your-writes: um valor
+ * adulterado não prende as leituras no primário por mais tempo que uma escrita legítima prenderia.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (ReplicaRoutingDataSource.COOKIE.equals(cookie.getName())) {
+                    try {
+                        long until = Long.parseLong(cookie.getValue());
+                        ReadYourWrites.pinUntil(Math.min(until, System.currentTimeMillis() + windowMillis));
+                    } catch (NumberFormatException ignored) {
+                        // cookie adulterado: segue o roteamento normal
+                    }
+                }
+            }
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
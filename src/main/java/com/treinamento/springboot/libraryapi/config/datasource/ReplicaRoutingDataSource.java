@@ -0,0 +1,87 @@
+package com.treinamento.springboot.libraryapi.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Transações {@code readOnly} vão para a réplica; o resto, inclusive o que roda sem transação, vai para o
+ * primário. Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}: o gerenciador de transações só marca
+ * a transação como somente leitura depois de abri-la, e a conexão tem que ser pedida depois disso.
+ * <p>
+ * Cada commit de uma transação de escrita fixa o chamador no primário por {@code readYourWrites}: a thread atual
+ * e, numa requisição web, as próximas requisições que trouxerem o cookie {@link #COOKIE}.
+ * <p>
+ * As cargas dos índices em memória ({@code service.index}) usam transação de escrita de propósito: eles são a
+ * fonte das decisões de empréstimo e de isbn duplicado e não podem nascer do atraso da réplica.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String COOKIE = "library-primary-until";
+
+    enum Route {PRIMARY, REPLICA}
+
+    private final Duration readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return ReadYourWrites.isPinned() ? Route.PRIMARY : Route.REPLICA;
+        }
+        trackWrite();
+        return Route.PRIMARY;
+    }
+
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(System.currentTimeMillis() + readYourWrites.toMillis());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+            }
+        });
+    }
+
+    private void pin(long until) {
+        ReadYourWrites.pinUntil(until);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            HttpServletResponse response = servlet.getResponse();
+            if (response != null && !response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) Math.max(1, readYourWrites.toSeconds()));
+                response.addCookie(cookie);
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.treinamento.springboot.libraryapi.exception;
 
+/**
+ * Violação de regra de negócio (ISBN duplicado, livro já emprestado...). É fluxo esperado e vira um 400,
+ * então não carrega stack trace nem exceções suprimidas.
+ */
 public class BusinessException extends RuntimeException {
     public BusinessException(String mensagem) {
-        super(mensagem);
+        super(mensagem, null, false, false);
     }
 }
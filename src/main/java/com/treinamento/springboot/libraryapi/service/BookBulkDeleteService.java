@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteResultDTO;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface BookBulkDeleteService {
+    BookBulkDeleteResultDTO deleteBooks(BookBulkDeleteDTO request);
+}
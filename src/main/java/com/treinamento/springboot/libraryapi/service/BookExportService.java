@@ -0,0 +1,11 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+
+@Service
+public interface BookExportService {
+    long exportBooks(OutputStream output, BookFormat format);
+}
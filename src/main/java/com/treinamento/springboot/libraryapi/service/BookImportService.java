@@ -0,0 +1,12 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookImportResultDTO;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+
+@Service
+public interface BookImportService {
+    BookImportResultDTO importBooks(InputStream input, BookFormat format);
+}
@@ -1,8 +1,13 @@
 package com.treinamento.springboot.libraryapi.service;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.service.io.BookPage;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -13,11 +18,21 @@ public interface BookService {
 
     Optional<Book> getById(Long id);
 
+    Optional<BookDTO> getView(Long id);
+
+    Optional<Long> getVersion(Long id);
+
     void delete(Book book);
 
     Book update(Book book);
 
+    Optional<Book> update(Long id, Long expectedVersion, String title, String author);
+
     Page<Book> find(Book filter, Pageable pageable);
 
+    BookPage findViews(Book filter, Boolean available, Pageable pageable, BookTotal total);
+
+    CursorSliceDTO<Book> findAfter(Book filter, String cursor, Sort sort, int size);
+
     Optional<Book> getBookByIsbn(String isbn);
 }
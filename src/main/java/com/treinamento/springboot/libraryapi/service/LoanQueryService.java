@@ -0,0 +1,10 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface LoanQueryService {
+    CursorSliceDTO<Loan> find(String isbn, String customer, Boolean returned, String cursor, int size);
+}
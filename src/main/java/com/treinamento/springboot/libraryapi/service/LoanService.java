@@ -3,7 +3,11 @@ package com.treinamento.springboot.libraryapi.service;
 import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public interface LoanService {
     Loan save(Loan loan);
+
+    Optional<Loan> returnLoan(Long id);
 }
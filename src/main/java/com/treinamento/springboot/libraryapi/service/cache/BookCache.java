@@ -0,0 +1,116 @@
+package com.treinamento.springboot.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache da projeção {@link BookDTO} por id. As projeções guardadas são compartilhadas entre as
+ * requisições e devolvidas sem cópia; quem as recebe não deve alterá-las.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final Cache<Long, Optional<BookDTO>> cache;
+
+    public BookCache(@Value("${library.book-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${library.book-cache.ttl:10m}") Duration ttl,
+                     @Value("${library.book-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<BookDTO>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<BookDTO> book, long currentTime) {
+                        return book.isPresent() ? ttl.toNanos() : negativeTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<BookDTO> book, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, book, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<BookDTO> book, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public Optional<BookDTO> get(Long id, Function<Long, Optional<BookDTO>> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Livro como entidade nova a cada chamada, montada a partir da projeção em cache.
+     */
+    public Optional<Book> getBook(Long id, Function<Long, Optional<Book>> loader) {
+        return get(id, key -> loader.apply(key).map(BookCache::view)).map(BookCache::book);
+    }
+
+    /**
+     * Projeção em cache, sem carregar do banco quando não estiver.
+     */
+    public Optional<BookDTO> peek(Long id) {
+        Optional<BookDTO> cached = id == null ? null : cache.getIfPresent(id);
+        return cached == null ? Optional.empty() : cached;
+    }
+
+    public void put(Book book) {
+        if (book != null && book.getId() != null) {
+            cache.put(book.getId(), Optional.of(view(book)));
+        }
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "books");
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static BookDTO view(Book book) {
+        return BookDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .version(book.getVersion())
+                .build();
+    }
+
+    private static Book book(BookDTO view) {
+        return Book.builder()
+                .id(view.getId())
+                .title(view.getTitle())
+                .author(view.getAuthor())
+                .isbn(view.getIsbn())
+                .version(view.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.treinamento.springboot.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "bookcache")
+public class BookCacheEndpoint {
+
+    private final BookCache bookCache;
+
+    public BookCacheEndpoint(BookCache bookCache) {
+        this.bookCache = bookCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = bookCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", bookCache.size());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("evictions", stats.evictionCount());
+        return body;
+    }
+}
@@ -0,0 +1,107 @@
+package com.treinamento.springboot.libraryapi.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Totais exatos da busca de livros por filtro, com vida curta e descartados a cada escrita. Também conta quantas
+ * vezes cada filtro foi pedido na janela do ttl, para separar os filtros comuns (que pagam a contagem exata uma
+ * vez e reaproveitam) dos raros (que recebem uma estimativa).
+ */
+@Component
+public class BookCountCache implements MeterBinder {
+
+    private final Cache<Key, Long> counts;
+    private final Cache<Key, AtomicInteger> requests;
+    private final int commonAfter;
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookCountCache(@Value("${library.books.count-cache.maximum-size:1000}") long maximumSize,
+                          @Value("${library.books.count-cache.ttl:30s}") Duration ttl,
+                          @Value("${library.books.count-cache.common-after:3}") int commonAfter) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.requests = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .build();
+        this.commonAfter = commonAfter;
+    }
+
+    /**
+     * Chave do filtro como a busca o aplica: texto contido e sem diferenciar maiúsculas, nulos ignorados.
+     */
+    public static Key key(Book filter, Boolean available) {
+        return new Key(filter.getId(), normalize(filter.getTitle()), normalize(filter.getAuthor()),
+                normalize(filter.getIsbn()), filter.getVersion(), available);
+    }
+
+    public Optional<Long> get(Key key) {
+        return Optional.ofNullable(counts.getIfPresent(key));
+    }
+
+    /**
+     * Registra mais um pedido do filtro e diz se ele já é comum o bastante para a contagem exata.
+     */
+    public boolean isCommon(Key key) {
+        return requests.get(key, ignored -> new AtomicInteger()).incrementAndGet() >= commonAfter;
+    }
+
+    /**
+     * Marca o início de uma contagem; o total só entra no cache se nenhuma escrita acontecer até o {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Confere a geração e grava na mesma operação da chave: uma escrita que incrementa a geração depois da conferência
+     * só limpa o cache depois da gravação, e a remoção apaga o total antigo.
+     */
+    public void put(Key key, long count, long generation) {
+        counts.asMap().compute(key, (ignored, current) -> this.generation.get() == generation ? Long.valueOf(count) : current);
+    }
+
+    /**
+     * Livro criado, alterado ou removido: qualquer total pode ter mudado.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    /**
+     * Empréstimo aberto ou devolvido: só mudam os totais filtrados por disponibilidade.
+     */
+    public void invalidateAvailability() {
+        generation.incrementAndGet();
+        counts.asMap().keySet().removeIf(key -> key.available() != null);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, counts, "book-counts");
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    public record Key(Long id, String title, String author, String isbn, Long version, Boolean available) {
+    }
+}
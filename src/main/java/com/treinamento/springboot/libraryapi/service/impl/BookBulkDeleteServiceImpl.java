@@ -0,0 +1,139 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteResultDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.BookBulkDeleteService;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.example;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.idIn;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.matching;
+
+/**
+ * Exclusão em lote por lista de ids e/ou pelo mesmo filtro da busca. Cada bloco de até {@code chunkSize} livros
+ * custa três comandos numa transação curta: a projeção (id, isbn) dos livros do bloco, os que têm empréstimos e
+ * um {@code DELETE ... WHERE id IN (...)} que ainda confere a ausência de empréstimos, para não apagar um livro
+ * emprestado entre a consulta e o delete. Livros com empréstimos ficam e são contados à parte.
+ */
+@Service
+public class BookBulkDeleteServiceImpl implements BookBulkDeleteService {
+
+    private final BookRepository repository;
+    private final LoanRepository loanRepository;
+    private final IsbnDirectory isbnDirectory;
+    private final BookSearchIndex searchIndex;
+    private final BookVersions bookVersions;
+    private final BookCache bookCache;
+    private final BookCountCache bookCounts;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BookBulkDeleteServiceImpl(BookRepository repository,
+                                     LoanRepository loanRepository,
+                                     IsbnDirectory isbnDirectory,
+                                     BookSearchIndex searchIndex,
+                                     BookVersions bookVersions,
+                                     BookCache bookCache,
+                                     BookCountCache bookCounts,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${library.books.bulk-delete.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.loanRepository = loanRepository;
+        this.isbnDirectory = isbnDirectory;
+        this.searchIndex = searchIndex;
+        this.bookVersions = bookVersions;
+        this.bookCache = bookCache;
+        this.bookCounts = bookCounts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public BookBulkDeleteResultDTO deleteBooks(BookBulkDeleteDTO request) {
+        Book filter = Book.builder().title(blankToNull(request.getTitle())).author(blankToNull(request.getAuthor()))
+                .isbn(blankToNull(request.getIsbn())).build();
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean hasFilter = filter.getTitle() != null || filter.getAuthor() != null || filter.getIsbn() != null;
+        if (!hasIds && !hasFilter) {
+            throw new BusinessException("Informe ids ou um filtro para a exclusão em lote");
+        }
+
+        Specification<Book> specification = matching(example(filter));
+        BookBulkDeleteResultDTO result = new BookBulkDeleteResultDTO();
+        if (hasIds) {
+            List<Long> ids = request.getIds().stream().filter(id -> id != null).distinct().sorted().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                deleteChunk(specification.and(idIn(chunk)), null, chunk.size(), result);
+            }
+        } else {
+            Long afterId = null;
+            do {
+                afterId = deleteChunk(specification, afterId, chunkSize, result);
+            } while (afterId != null);
+        }
+        return result;
+    }
+
+    /**
+     * Processa um bloco e devolve o maior id visto, ou {@code null} quando o bloco veio incompleto e não há mais livros.
+     */
+    private Long deleteChunk(Specification<Book> specification, Long afterId, int limit, BookBulkDeleteResultDTO result) {
+        ChunkResult chunk = transactionTemplate.execute(status -> {
+            List<BookDTO> books = repository.findViewsAfter(specification, afterId, limit);
+            if (books.isEmpty()) {
+                return null;
+            }
+            List<Long> ids = books.stream().map(BookDTO::getId).toList();
+            Set<Long> withLoans = loanRepository.findBookIdsWithLoans(ids);
+            List<Long> deletable = ids.stream().filter(id -> !withLoans.contains(id)).toList();
+            int deleted = deletable.isEmpty() ? 0 : repository.deleteWithoutLoans(deletable);
+            Set<Long> remaining = deleted == deletable.size() ? Set.of() : repository.findExistingIds(deletable);
+            return new ChunkResult(books, withLoans, remaining, deleted);
+        });
+        if (chunk == null) {
+            return null;
+        }
+        for (BookDTO view : chunk.books()) {
+            if (chunk.withLoans().contains(view.getId()) || chunk.remaining().contains(view.getId())) {
+                continue;
+            }
+            Book book = Book.builder().id(view.getId()).isbn(view.getIsbn()).build();
+            isbnDirectory.unregister(book);
+            searchIndex.unregister(book);
+            bookVersions.unregister(book);
+            bookCache.evict(book.getId());
+        }
+        if (chunk.deleted() > 0) {
+            bookCounts.invalidate();
+        }
+        result.setMatched(result.getMatched() + chunk.books().size());
+        result.setDeleted(result.getDeleted() + chunk.deleted());
+        result.setSkippedWithLoans(result.getSkippedWithLoans() + chunk.books().size() - chunk.deleted());
+        return chunk.books().size() < limit ? null : chunk.books().get(chunk.books().size() - 1).getId();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record ChunkResult(List<BookDTO> books, Set<Long> withLoans, Set<Long> remaining, int deleted) {
+    }
+}
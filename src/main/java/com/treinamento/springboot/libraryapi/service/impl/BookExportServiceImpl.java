@@ -0,0 +1,88 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.service.BookExportService;
+import com.treinamento.springboot.libraryapi.service.io.BookCsv;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class BookExportServiceImpl implements BookExportService {
+
+    private final BookRepository repository;
+    private final EntityManager entityManager;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    public BookExportServiceImpl(BookRepository repository,
+                                 EntityManager entityManager,
+                                 BookMapper bookMapper,
+                                 ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(BookDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream output, BookFormat format) {
+        try (Stream<Book> books = repository.streamAll()) {
+            return format == BookFormat.CSV ? writeCsv(books.iterator(), output) : writeNdjson(books.iterator(), output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long writeNdjson(Iterator<Book> books, OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null)) {
+            while (books.hasNext()) {
+                Book book = books.next();
+                writer.writeValue(generator, bookMapper.toDto(book));
+                generator.writeRaw('\n');
+                entityManager.detach(book);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Book> books, OutputStream output) throws IOException {
+        long count = 0;
+        Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        out.write(BookCsv.HEADER);
+        out.write('\n');
+        while (books.hasNext()) {
+            Book book = books.next();
+            BookCsv.writeLine(out, book.getTitle(), book.getAuthor(), book.getIsbn());
+            entityManager.detach(book);
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+}
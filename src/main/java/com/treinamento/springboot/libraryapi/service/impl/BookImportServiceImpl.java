@@ -0,0 +1,250 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportRejectDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportResultDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.BookImportService;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import com.treinamento.springboot.libraryapi.service.io.BookCsv;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+    /**
+     * Teto de um registro CSV com quebras de linha entre aspas; uma aspa sem par não consome o resto do arquivo.
+     */
+    private static final int MAX_CSV_RECORD_CHARS = 64 * 1024;
+
+    private final BookRepository repository;
+    private final IsbnDirectory isbnDirectory;
+    private final BookSearchIndex searchIndex;
+    private final BookVersions bookVersions;
+    private final BookCache bookCache;
+    private final BookCountCache bookCounts;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectReader reader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedRejects;
+
+    public BookImportServiceImpl(BookRepository repository,
+                                 IsbnDirectory isbnDirectory,
+                                 BookSearchIndex searchIndex,
+                                 BookVersions bookVersions,
+                                 BookCache bookCache,
+                                 BookCountCache bookCounts,
+                                 PlatformTransactionManager transactionManager,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${library.import.chunk-size:500}") int chunkSize,
+                                 @Value("${library.import.max-reported-rejects:1000}") int maxReportedRejects) {
+        this.repository = repository;
+        this.isbnDirectory = isbnDirectory;
+        this.searchIndex = searchIndex;
+        this.bookVersions = bookVersions;
+        this.bookCache = bookCache;
+        this.bookCounts = bookCounts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.reader = objectMapper.readerFor(BookDTO.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    @Override
+    public BookImportResultDTO importBooks(InputStream input, BookFormat format) {
+        BookImportResultDTO result = new BookImportResultDTO();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int[] columns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == BookFormat.CSV && columns == null) {
+                    columns = csvColumns(line);
+                    continue;
+                }
+                long recordLine = lineNumber;
+                String record = line;
+                if (format == BookFormat.CSV && BookCsv.endsInsideQuotes(record)) {
+                    StringBuilder joined = new StringBuilder(record);
+                    boolean open = true;
+                    String next;
+                    while (open && joined.length() <= MAX_CSV_RECORD_CHARS && (next = lines.readLine()) != null) {
+                        lineNumber++;
+                        joined.append('\n').append(next);
+                        open ^= BookCsv.endsInsideQuotes(next);
+                    }
+                    record = joined.toString();
+                }
+                result.setProcessed(result.getProcessed() + 1);
+                BookDTO dto;
+                try {
+                    dto = format == BookFormat.CSV ? fromCsv(record, columns) : reader.readValue(record);
+                } catch (IOException | IllegalArgumentException ex) {
+                    dto = null;
+                }
+                if (dto == null) {
+                    reject(result, recordLine, null, List.of("Malformed row"));
+                    continue;
+                }
+                List<String> errors = validate(dto);
+                if (!errors.isEmpty()) {
+                    reject(result, recordLine, dto.getIsbn(), errors);
+                    continue;
+                }
+                chunk.add(new ImportRow(recordLine, dto));
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        writeChunk(chunk, result);
+        return result;
+    }
+
+    private void writeChunk(List<ImportRow> chunk, BookImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> candidates = chunk.stream()
+                .map(row -> row.book().getIsbn())
+                .filter(isbnDirectory::mightContain)
+                .collect(Collectors.toSet());
+        Set<String> existing = candidates.isEmpty() ? Set.of() : repository.findExistingIsbns(candidates);
+
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            String isbn = row.book().getIsbn();
+            if (existing.contains(isbn)) {
+                reject(result, row.line(), isbn, List.of("Isbn já cadastrado"));
+            } else if (!seen.add(isbn)) {
+                reject(result, row.line(), isbn, List.of("Isbn repetido no arquivo"));
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        try {
+            persist(accepted, result);
+        } catch (DataIntegrityViolationException ex) {
+            for (ImportRow row : accepted) {
+                try {
+                    persist(List.of(row), result);
+                } catch (DataIntegrityViolationException rowEx) {
+                    if (!BookServiceImpl.isIsbnViolation(rowEx)) {
+                        throw rowEx;
+                    }
+                    reject(result, row.line(), row.book().getIsbn(), List.of("Isbn já cadastrado"));
+                }
+            }
+        }
+    }
+
+    private void persist(List<ImportRow> rows, BookImportResultDTO result) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Book> books = rows.stream().map(row -> toBook(row.book())).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.saveAll(books);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        books.forEach(book -> {
+            isbnDirectory.register(book);
+            searchIndex.register(book);
+            bookVersions.register(book);
+            bookCache.put(book);
+        });
+        bookCounts.invalidate();
+        result.setImported(result.getImported() + books.size());
+    }
+
+    private void reject(BookImportResultDTO result, long line, String isbn, List<String> errors) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getRejects().size() < maxReportedRejects) {
+            result.getRejects().add(BookImportRejectDTO.builder().line(line).isbn(isbn).errors(errors).build());
+        }
+    }
+
+    private List<String> validate(BookDTO dto) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(dto);
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static int[] csvColumns(String header) {
+        List<String> names = BookCsv.parseLine(header);
+        int[] columns = {names.indexOf("title"), names.indexOf("author"), names.indexOf("isbn")};
+        for (int column : columns) {
+            if (column < 0) {
+                throw new BusinessException("Cabeçalho CSV deve conter " + BookCsv.HEADER);
+            }
+        }
+        return columns;
+    }
+
+    private static BookDTO fromCsv(String line, int[] columns) {
+        List<String> fields = BookCsv.parseLine(line);
+        return BookDTO.builder()
+                .title(field(fields, columns[0]))
+                .author(field(fields, columns[1]))
+                .isbn(field(fields, columns[2]))
+                .build();
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static Book toBook(BookDTO dto) {
+        return Book.builder().title(dto.getTitle()).author(dto.getAuthor()).isbn(dto.getIsbn()).build();
+    }
+
+    private record ImportRow(long line, BookDTO book) {
+    }
+}
@@ -1,36 +1,126 @@
 package com.treinamento.springboot.libraryapi.service.impl;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
 import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
 import com.treinamento.springboot.libraryapi.service.BookService;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import com.treinamento.springboot.libraryapi.service.io.BookCursor;
+import com.treinamento.springboot.libraryapi.service.io.BookPage;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.example;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.idIn;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.idNotIn;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.loaned;
+import static com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications.matching;
 
 @Service
 public class BookServiceImpl implements BookService {
     private final BookRepository repository;
+    private final IsbnDirectory isbnDirectory;
+    private final BookSearchIndex searchIndex;
+    private final BookVersions bookVersions;
+    private final BookCache bookCache;
+    private final LoanedBooks loanedBooks;
+    private final BookCountCache bookCounts;
+    private final int maxLoanedIds;
+    private final int estimateLimit;
 
-    public BookServiceImpl(BookRepository repository) {
+    public BookServiceImpl(BookRepository repository, IsbnDirectory isbnDirectory, BookSearchIndex searchIndex,
+                           BookVersions bookVersions, BookCache bookCache,
+                           LoanedBooks loanedBooks, BookCountCache bookCounts,
+                           @Value("${library.books.availability.max-loaned-ids:1000}") int maxLoanedIds,
+                           @Value("${library.books.count.estimate-limit:1000}") int estimateLimit) {
         this.repository = repository;
+        this.isbnDirectory = isbnDirectory;
+        this.searchIndex = searchIndex;
+        this.bookVersions = bookVersions;
+        this.bookCache = bookCache;
+        this.loanedBooks = loanedBooks;
+        this.bookCounts = bookCounts;
+        this.maxLoanedIds = maxLoanedIds;
+        this.estimateLimit = estimateLimit;
     }
 
     @Override
     public Book save(Book book) {
-        if (repository.existsByIsbn(book.getIsbn())) {
+        if (isbnDirectory.mightContain(book.getIsbn()) && repository.existsByIsbn(book.getIsbn())) {
             throw new BusinessException("Isbn já cadastrado");
         }
-        return repository.save(book);
+        Book saved;
+        try {
+            saved = repository.save(book);
+        } catch (DataIntegrityViolationException ex) {
+            if (isIsbnViolation(ex)) {
+                throw new BusinessException("Isbn já cadastrado");
+            }
+            throw ex;
+        }
+        isbnDirectory.register(saved);
+        searchIndex.register(saved);
+        bookVersions.register(saved);
+        bookCache.put(saved);
+        bookCounts.invalidate();
+        return saved;
+    }
+
+    /**
+     * Só a constraint única do isbn quer dizer isbn já cadastrado; as demais violações (coluna nula ou estourada)
+     * seguem como erro.
+     */
+    static boolean isIsbnViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && mentionsIsbn(violation.getConstraintName())
+                    || mentionsIsbn(cause.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentionsIsbn(String detail) {
+        return detail != null && detail.toLowerCase(Locale.ROOT).contains(Book.ISBN_CONSTRAINT);
     }
 
     @Override
     public Optional<Book> getById(Long id) {
-        return this.repository.findById(id);
+        return bookCache.getBook(id, repository::findById);
+    }
+
+    @Override
+    public Optional<BookDTO> getView(Long id) {
+        return bookCache.get(id, repository::findViewById);
+    }
+
+    @Override
+    public Optional<Long> getVersion(Long id) {
+        return bookVersions.versionOf(id);
     }
 
     @Override
@@ -38,7 +128,16 @@ public class BookServiceImpl implements BookService {
         if (book == null || book.getId() == null) {
             throw new IllegalArgumentException("Book cant be null");
         }
-        this.repository.delete(book);
+        try {
+            this.repository.delete(book);
+        } catch (DataIntegrityViolationException ex) {
+            throw new BusinessException("Book has loans");
+        }
+        isbnDirectory.unregister(book);
+        searchIndex.unregister(book);
+        bookVersions.unregister(book);
+        bookCache.evict(book.getId());
+        bookCounts.invalidate();
     }
 
     @Override
@@ -46,22 +145,176 @@ public class BookServiceImpl implements BookService {
         if (book == null || book.getId() == null) {
             throw new IllegalArgumentException("Book cant be null");
         }
-        return this.repository.save(book);
+        Book updated;
+        try {
+            updated = this.repository.save(book);
+        } finally {
+            bookCache.evict(book.getId());
+        }
+        isbnDirectory.register(updated);
+        searchIndex.register(updated);
+        bookVersions.register(updated);
+        bookCache.put(updated);
+        bookCounts.invalidate();
+        return updated;
+    }
+
+    /**
+     * Altera título e autor com um único {@code UPDATE ... WHERE id = ? AND version = ?}, sem carregar a entidade.
+     * O novo estado é montado a partir dos valores enviados; o ISBN, que não muda aqui, vem do cache e só é
+     * lido do banco quando o livro não está nele. Vazio se o livro não existe; se a versão mudou nesse meio
+     * tempo, lança {@link ObjectOptimisticLockingFailureException}.
+     */
+    @Override
+    public Optional<Book> update(Long id, Long expectedVersion, String title, String author) {
+        if (id == null || expectedVersion == null) {
+            throw new IllegalArgumentException("Book cant be null");
+        }
+        if (repository.updateTitleAndAuthor(id, expectedVersion, title, author) == 0) {
+            bookCache.evict(id);
+            if (!repository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new ObjectOptimisticLockingFailureException(Book.class, id);
+        }
+        String isbn = bookCache.peek(id)
+                .map(BookDTO::getIsbn)
+                .or(() -> repository.findViewById(id).map(BookDTO::getIsbn))
+                .orElse(null);
+        Book updated = Book.builder().id(id).title(title).author(author).isbn(isbn).version(expectedVersion + 1).build();
+        searchIndex.register(updated);
+        bookVersions.register(updated);
+        bookCache.put(updated);
+        bookCounts.invalidate();
+        return Optional.of(updated);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Book> find(Book filter, Pageable pageable) {
-        Example<Book> example = Example.of(filter, ExampleMatcher
-                .matching()
-                .withIgnoreCase()
-                .withIgnoreNullValues()
-                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return repository.findAll(example, pageable);
+        Optional<Set<Long>> candidates = searchIndex.candidates(filter.getTitle(), filter.getAuthor());
+        if (candidates.isEmpty()) {
+            return repository.findAll(example(filter), pageable);
+        }
+        if (candidates.get().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        return repository.findAll(matching(example(filter)).and(idIn(candidates.get())), pageable);
+    }
+
+    /**
+     * Página da busca com o total escolhido por {@code total}, ou pelo filtro quando nulo: filtros comuns recebem a
+     * contagem exata, guardada por pouco tempo, e os raros uma contagem que para em {@code estimateLimit}, exata
+     * abaixo dele e um piso ({@link BookTotal#LOWER_BOUND}) a partir dele. Quando a própria página revela o total
+     * (primeira página incompleta ou última página) ele é exato sem nenhuma contagem.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookPage findViews(Book filter, Boolean available, Pageable pageable, BookTotal total) {
+        Optional<Set<Long>> candidates = searchIndex.candidates(filter.getTitle(), filter.getAuthor());
+        Specification<Book> specification = matching(example(filter));
+        if (available != null) {
+            Optional<Set<Long>> retained = candidates.flatMap(ids -> loanedBooks.retain(ids, available));
+            if (retained.isPresent()) {
+                candidates = retained;
+            } else {
+                specification = specification.and(availability(available));
+            }
+        }
+        if (candidates.isPresent() && candidates.get().isEmpty()) {
+            return total == BookTotal.NONE
+                    ? new BookPage(new SliceImpl<>(List.of(), pageable, false), BookTotal.NONE)
+                    : new BookPage(new PageImpl<>(List.of(), pageable, 0), BookTotal.EXACT);
+        }
+        Specification<Book> filtered = specification;
+        Specification<Book> query = candidates.map(ids -> filtered.and(idIn(ids))).orElse(filtered);
+        if (total == BookTotal.NONE) {
+            return new BookPage(repository.findViewSlice(query, pageable), BookTotal.NONE);
+        }
+
+        List<BookDTO> content = repository.findViewContent(query, pageable);
+        OptionalLong known = totalOf(content, pageable);
+        if (known.isPresent()) {
+            return new BookPage(new PageImpl<>(content, pageable, known.getAsLong()), BookTotal.EXACT);
+        }
+        BookCountCache.Key key = BookCountCache.key(filter, available);
+        Optional<Long> cached = bookCounts.get(key);
+        if (cached.isPresent()) {
+            return new BookPage(new PageImpl<>(content, pageable, cached.get()), BookTotal.EXACT);
+        }
+        long generation = bookCounts.generation();
+        // com candidatos do índice a consulta já está limitada a no máximo maxCandidates ids: contar é barato
+        if (candidates.isPresent() || total == BookTotal.EXACT || (total == null && bookCounts.isCommon(key))) {
+            long count = repository.countMatching(query);
+            bookCounts.put(key, count, generation);
+            return new BookPage(new PageImpl<>(content, pageable, count), BookTotal.EXACT);
+        }
+        long counted = repository.countUpTo(query, estimateLimit);
+        if (counted < estimateLimit) {
+            bookCounts.put(key, counted, generation);
+            return new BookPage(new PageImpl<>(content, pageable, counted), BookTotal.EXACT);
+        }
+        return new BookPage(new PageImpl<>(content, pageable, counted), BookTotal.LOWER_BOUND);
+    }
+
+    /**
+     * Total que dispensa contagem, pelas mesmas regras de {@code PageableExecutionUtils}.
+     */
+    private static OptionalLong totalOf(List<BookDTO> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return OptionalLong.of(content.size());
+        }
+        if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+            return OptionalLong.of(pageable.getOffset() + content.size());
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Com poucos livros emprestados o filtro vira uma lista de ids tirada do bitmap; acima de
+     * {@code maxLoanedIds}, ou antes da carga do bitmap, volta à subconsulta em loan.
+     */
+    private Specification<Book> availability(boolean available) {
+        return loanedBooks.loanedIds(maxLoanedIds)
+                .map(ids -> {
+                    if (ids.isEmpty()) {
+                        return available
+                                ? Specification.<Book>where(null)
+                                : Specification.<Book>where((root, query, cb) -> cb.disjunction());
+                    }
+                    return available ? idNotIn(ids) : idIn(ids);
+                })
+                .orElseGet(() -> loaned(!available));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<Book> findAfter(Book filter, String cursor, Sort sort, int size) {
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.asc("id");
+        if (!BookCursor.SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new BusinessException("Ordenação não suportada: " + order.getProperty());
+        }
+        BookCursor after = cursor == null || cursor.isEmpty() ? null : BookCursor.decode(cursor, order);
+
+        List<Book> rows = repository.findAfter(example(filter), order, after, size + 1);
+        if (rows.size() <= size) {
+            return new CursorSliceDTO<>(rows, null);
+        }
+        List<Book> content = rows.subList(0, size);
+        return new CursorSliceDTO<>(content, BookCursor.after(content.get(size - 1), order).encode());
     }
 
     @Override
     public Optional<Book> getBookByIsbn(String isbn) {
-        return null;
+        if (isbn == null) {
+            return Optional.empty();
+        }
+        if (!isbnDirectory.isLoaded()) {
+            return repository.findByIsbn(isbn);
+        }
+        return isbnDirectory.idOf(isbn)
+                .flatMap(this::getById)
+                .filter(book -> isbn.equals(book.getIsbn()));
     }
 
 }
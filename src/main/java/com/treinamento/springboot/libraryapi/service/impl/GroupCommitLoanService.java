@@ -0,0 +1,240 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.LoanService;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Grava empréstimos em lote: as requisições entram em uma fila limitada e uma única thread as persiste
+ * em uma transação a cada {@code max-delay} ou {@code batch-size} itens. Cada chamador fica bloqueado até
+ * o commit do lote que contém o seu empréstimo, no máximo por {@code wait-timeout}.
+ */
+@Primary
+@Service
+@ConditionalOnProperty(name = "library.loans.group-commit.enabled", havingValue = "true")
+public class GroupCommitLoanService implements LoanService, DisposableBean {
+
+    private final LoanRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanedBooks loanedBooks;
+    private final BookCountCache bookCounts;
+    private final LoanServiceImpl loans;
+    private final BlockingQueue<PendingLoan> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long waitTimeoutMillis;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public GroupCommitLoanService(LoanRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  LoanedBooks loanedBooks,
+                                  BookCountCache bookCounts,
+                                  LoanServiceImpl loans,
+                                  @Value("${library.loans.group-commit.batch-size:100}") int batchSize,
+                                  @Value("${library.loans.group-commit.max-delay:5ms}") Duration maxDelay,
+                                  @Value("${library.loans.group-commit.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${library.loans.group-commit.wait-timeout:30s}") Duration waitTimeout) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loanedBooks = loanedBooks;
+        this.bookCounts = bookCounts;
+        this.loans = loans;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+        this.flusher = new Thread(this::flushLoop, "loan-group-commit");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null || loan.getBook() == null || loan.getBook().getId() == null) {
+            throw new IllegalArgumentException("Loan must reference a book");
+        }
+        if (!running) {
+            throw new IllegalStateException("Loan queue is shut down");
+        }
+        if (loan.getReturned() == null) {
+            loan.setReturned(false);
+        }
+        if (loan.getOverdue() == null) {
+            loan.setOverdue(false);
+        }
+        PendingLoan pending = new PendingLoan(loan, new CompletableFuture<>());
+        try {
+            queue.put(pending);
+            return pending.result().get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queuing loan", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the loan batch to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingLoan> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingLoan first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingLoan next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+            } catch (Throwable e) {
+                // um Error deixa a thread em estado desconhecido: a fila para e ninguém fica esperando um lote que
+                // não vai sair
+                running = false;
+                batch.forEach(pending -> pending.result().completeExceptionally(e));
+                failQueued(e);
+                throw e;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        PendingLoan pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Segura as travas dos livros do lote do commit até o {@code lend}, como o {@link LoanServiceImpl}, para uma
+     * devolução concorrente não liberar o livro no bitmap antes de o lote marcá-lo.
+     */
+    void flush(List<PendingLoan> batch) {
+        Map<Long, PendingLoan> accepted = new LinkedHashMap<>();
+        for (PendingLoan pending : batch) {
+            if (accepted.putIfAbsent(pending.loan().getBook().getId(), pending) != null) {
+                pending.result().completeExceptionally(new BusinessException("Book already loaned"));
+            }
+        }
+        List<Lock> held = new ArrayList<>(accepted.size());
+        accepted.values().forEach(pending -> {
+            Lock lock = loans.lockFor(pending.loan().getBook());
+            lock.lock();
+            held.add(lock);
+        });
+        try {
+            flushLocked(accepted);
+        } finally {
+            held.forEach(Lock::unlock);
+        }
+    }
+
+    private void flushLocked(Map<Long, PendingLoan> accepted) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> loaned = repository.findActiveBookIds(accepted.keySet());
+                loaned.forEach(bookId -> accepted.remove(bookId).result()
+                        .completeExceptionally(new BusinessException("Book already loaned")));
+                repository.saveAll(accepted.values().stream().map(PendingLoan::loan).toList());
+                repository.flush();
+            });
+            accepted.values().forEach(pending -> loanedBooks.lend(pending.loan().getBook().getId()));
+            bookCounts.invalidateAvailability();
+            accepted.values().forEach(pending -> pending.result().complete(pending.loan()));
+        } catch (DataIntegrityViolationException ex) {
+            accepted.values().forEach(this::flushOne);
+        }
+    }
+
+    private void flushOne(PendingLoan pending) {
+        pending.loan().setId(null);
+        try {
+            Loan saved = transactionTemplate.execute(status -> {
+                if (repository.existsByBookAndReturnedFalse(pending.loan().getBook())) {
+                    throw new BusinessException("Book already loaned");
+                }
+                return repository.saveAndFlush(pending.loan());
+            });
+            loanedBooks.lend(saved.getBook().getId());
+            bookCounts.invalidateAvailability();
+            pending.result().complete(saved);
+        } catch (DataIntegrityViolationException ex) {
+            pending.result().completeExceptionally(LoanServiceImpl.isActiveBookViolation(ex)
+                    ? new BusinessException("Book already loaned")
+                    : ex);
+        } catch (RuntimeException ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Devoluções não passam pela fila: são raras perto dos empréstimos e não disputam a mesma constraint. Vão pelo
+     * {@link LoanServiceImpl}, que trava o livro do commit até liberar o bitmap.
+     */
+    @Override
+    public Optional<Loan> returnLoan(Long id) {
+        return loans.returnLoan(id);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        failQueued(new IllegalStateException("Loan queue is shut down"));
+    }
+
+    record PendingLoan(Loan loan, CompletableFuture<Loan> result) {
+    }
+}
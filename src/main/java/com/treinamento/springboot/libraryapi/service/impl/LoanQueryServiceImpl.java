@@ -0,0 +1,52 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.LoanQueryService;
+import com.treinamento.springboot.libraryapi.service.io.LoanCursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Listagem de empréstimos por cursor. O isbn é resolvido para o id do livro antes da consulta, que então filtra
+ * pela chave estrangeira sem precisar de join para o filtro; o join com o livro existe só para trazê-lo junto.
+ */
+@Service
+public class LoanQueryServiceImpl implements LoanQueryService {
+
+    private final LoanRepository repository;
+    private final BookService bookService;
+
+    public LoanQueryServiceImpl(LoanRepository repository, BookService bookService) {
+        this.repository = repository;
+        this.bookService = bookService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<Loan> find(String isbn, String customer, Boolean returned, String cursor, int size) {
+        LoanCursor after = cursor == null || cursor.isEmpty() ? null : LoanCursor.decode(cursor);
+
+        Long bookId = null;
+        if (isbn != null) {
+            Optional<Book> book = bookService.getBookByIsbn(isbn);
+            if (book.isEmpty()) {
+                return new CursorSliceDTO<>(List.of(), null);
+            }
+            bookId = book.get().getId();
+        }
+
+        List<Loan> rows = repository.findAfter(bookId, customer, returned, after, size + 1);
+        if (rows.size() <= size) {
+            return new CursorSliceDTO<>(rows, null);
+        }
+        List<Loan> content = rows.subList(0, size);
+        return new CursorSliceDTO<>(content, LoanCursor.after(content.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,138 @@
+package com.treinamento.springboot.libraryapi.service.impl;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.LoanService;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.concurrent.StripedLocks;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+@Service
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final LoanedBooks loanedBooks;
+    private final BookCountCache bookCounts;
+    private final StripedLocks locks;
+
+    public LoanServiceImpl(LoanRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           LoanedBooks loanedBooks,
+                           BookCountCache bookCounts,
+                           @Value("${library.loans.lock-stripes:1024}") int lockStripes) {
+        this.repository = repository;
+        this.loanedBooks = loanedBooks;
+        this.bookCounts = bookCounts;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.locks = new StripedLocks(lockStripes);
+    }
+
+    @Override
+    public Loan save(Loan loan) {
+        if (loan == null || loan.getBook() == null || loan.getBook().getId() == null) {
+            throw new IllegalArgumentException("Loan must reference a book");
+        }
+        if (loan.getReturned() == null) {
+            loan.setReturned(false);
+        }
+        if (loan.getOverdue() == null) {
+            loan.setOverdue(false);
+        }
+        Long bookId = loan.getBook().getId();
+        // com o bitmap carregado a consulta prévia é dispensável: a constraint única de activeBookId barra a corrida
+        boolean knownFree = loanedBooks.isLoaned(bookId).map(loaned -> !loaned).orElse(false);
+        Lock lock = lockFor(loan.getBook());
+        lock.lock();
+        try {
+            Loan saved = transactionTemplate.execute(status -> {
+                if (!knownFree && repository.existsByBookAndReturnedFalse(loan.getBook())) {
+                    throw new BusinessException("Book already loaned");
+                }
+                return repository.saveAndFlush(loan);
+            });
+            loanedBooks.lend(bookId);
+            bookCounts.invalidateAvailability();
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            if (!isActiveBookViolation(ex)) {
+                throw ex;
+            }
+            // a violação pode vir de um empréstimo já devolvido por outra instância: só o banco diz se ainda está aberto
+            Boolean open = transactionTemplate.execute(status -> repository.existsByBookAndReturnedFalse(loan.getBook()));
+            if (Boolean.TRUE.equals(open)) {
+                loanedBooks.lend(bookId);
+            }
+            throw new BusinessException("Book already loaned");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Só a constraint única de activeBookId quer dizer livro já emprestado; as demais violações (livro inexistente,
+     * coluna estourada) seguem como erro.
+     */
+    static boolean isActiveBookViolation(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && mentionsActiveBook(violation.getConstraintName())
+                    || mentionsActiveBook(cause.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean mentionsActiveBook(String detail) {
+        return detail != null && detail.toLowerCase(Locale.ROOT).contains(Loan.ACTIVE_BOOK_CONSTRAINT);
+    }
+
+    /**
+     * A devolução segura a mesma trava do empréstimo do livro do commit até o {@code release}, para o bitmap ver
+     * empréstimo e devolução na ordem em que o banco os gravou.
+     */
+    @Override
+    public Optional<Loan> returnLoan(Long id) {
+        Optional<Book> book = transactionTemplate.execute(status -> repository.findWithBookById(id).map(Loan::getBook));
+        if (book.isEmpty()) {
+            return Optional.empty();
+        }
+        Lock lock = lockFor(book.get());
+        lock.lock();
+        try {
+            Optional<Loan> returned = transactionTemplate.execute(status -> repository.findWithBookById(id).map(loan -> {
+                if (Boolean.TRUE.equals(loan.getReturned())) {
+                    return loan;
+                }
+                loan.setReturned(true);
+                return repository.saveAndFlush(loan);
+            }));
+            returned.ifPresent(loan -> {
+                loanedBooks.release(loan.getBook().getId());
+                bookCounts.invalidateAvailability();
+            });
+            return returned;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Trava do livro entre commit e atualização do bitmap, compartilhada com o {@link GroupCommitLoanService}.
+     */
+    Lock lockFor(Book book) {
+        return locks.get(book.getIsbn());
+    }
+}
@@ -0,0 +1,313 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookSearchView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Índice de trigramas de título e autor. Cada trigrama guarda os ids num {@code long[]} ordenado, sem cópia dos
+ * textos: os candidatos são a interseção das listas e a consulta ao banco confere o {@code like} nas linhas que
+ * já busca. Só os livros alterados ou removidos desde a última compactação têm o texto atual guardado, para
+ * descartar as listas antigas em que ainda aparecem; ao passar de {@value #COMPACT_AFTER} eles são limpos das
+ * listas e esquecidos.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int COMPACT_AFTER = 10_000;
+    private static final String[] REMOVED = new String[2];
+
+    private final BookRepository repository;
+    private final int maxCandidates;
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> changed = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    public BookSearchIndex(BookRepository repository,
+                           @Value("${library.search-index.max-candidates:1000}") int maxCandidates) {
+        this.repository = repository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<BookSearchView> entries = repository.streamSearchIndex()) {
+            entries.forEach(entry -> {
+                lock.writeLock().lock();
+                try {
+                    if (!changed.containsKey(entry.getId())) {
+                        add(entry.getId(), normalize(entry.getTitle()), normalize(entry.getAuthor()));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Postings::trim);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Ids que podem atender ao filtro de título/autor: têm todos os trigramas dos termos, mas não necessariamente
+     * em sequência, então a consulta ainda precisa do filtro original. Vazio quando o índice não consegue restringir
+     * a busca (índice não carregado, termos com menos de três caracteres ou candidatos demais).
+     */
+    public Optional<Set<Long>> candidates(String title, String author) {
+        String titleTerm = normalize(title);
+        String authorTerm = normalize(author);
+        if (!loaded || (!indexable(titleTerm) && !indexable(authorTerm))) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            if (indexable(titleTerm)) {
+                result = matching(TITLE, titleTerm, null);
+            }
+            if (result != null && result.size() > maxCandidates) {
+                return Optional.empty();
+            }
+            if (indexable(authorTerm)) {
+                result = matching(AUTHOR, authorTerm, result);
+            }
+            return result.size() > maxCandidates ? Optional.empty() : Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void register(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            String[] document = {normalize(book.getTitle()), normalize(book.getAuthor())};
+            add(book.getId(), document[TITLE], document[AUTHOR]);
+            changed.put(book.getId(), document);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unregister(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            changed.put(book.getId(), REMOVED);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Interseção das listas dos trigramas do termo, da menor para a maior, parando ao passar de
+     * {@code maxCandidates}. Ids alterados desde a carga são conferidos pelo texto atual.
+     */
+    private Set<Long> matching(int field, String term, Set<Long> restrictTo) {
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(field, term)) {
+            Postings ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        Set<Long> result = new HashSet<>();
+        Postings smallest = lists.get(0);
+        Iterator<Long> source = restrictTo != null && restrictTo.size() < smallest.size()
+                ? restrictTo.iterator()
+                : smallest.iterator();
+        while (source.hasNext() && result.size() <= maxCandidates) {
+            long id = source.next();
+            if (restrictTo != null && !restrictTo.contains(id)) {
+                continue;
+            }
+            String[] current = changed.get(id);
+            if (current != null) {
+                if (current[field] != null && current[field].contains(term)) {
+                    result.add(id);
+                }
+                continue;
+            }
+            if (containedInAll(lists, id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static boolean containedInAll(List<Postings> lists, long id) {
+        for (Postings list : lists) {
+            if (!list.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long id, String title, String author) {
+        if (title != null) {
+            for (long gram : grams(TITLE, title)) {
+                postings.computeIfAbsent(gram, k -> new Postings()).add(id);
+            }
+        }
+        if (author != null) {
+            for (long gram : grams(AUTHOR, author)) {
+                postings.computeIfAbsent(gram, k -> new Postings()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Tira das listas os ids removidos e os trigramas que os livros alterados deixaram de ter.
+     */
+    private void compactIfNeeded() {
+        if (changed.size() < COMPACT_AFTER || !loaded) {
+            return;
+        }
+        Iterator<Map.Entry<Long, Postings>> entries = postings.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Postings> entry = entries.next();
+            long gram = entry.getKey();
+            entry.getValue().removeIf(id -> {
+                String[] current = changed.get(id);
+                return current != null && !hasGram(current, gram);
+            });
+            if (entry.getValue().size() == 0) {
+                entries.remove();
+            }
+        }
+        changed.clear();
+    }
+
+    private static boolean hasGram(String[] document, long gram) {
+        int field = (int) (gram >>> 48);
+        String value = document[field];
+        if (value == null) {
+            return false;
+        }
+        String text = new String(new char[]{(char) (gram >>> 32), (char) (gram >>> 16), (char) gram});
+        return value.contains(text);
+    }
+
+    private static long[] grams(int field, String value) {
+        long[] grams = new long[Math.max(0, value.length() - GRAM + 1)];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) field << 48 | (long) value.charAt(i) << 32 | (long) value.charAt(i + 1) << 16
+                    | value.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static boolean indexable(String term) {
+        return term != null && term.length() >= GRAM;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lista ordenada de ids de um trigrama. A carga vem ordenada por id e os livros novos têm ids maiores, então
+     * quase toda inclusão é no fim do array.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void removeIf(LongPredicate predicate) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!predicate.test(ids[i])) {
+                    ids[kept++] = ids[i];
+                }
+            }
+            size = kept;
+            trim();
+        }
+
+        void trim() {
+            if (ids.length != size) {
+                ids = Arrays.copyOf(ids, size);
+            }
+        }
+
+        Iterator<Long> iterator() {
+            return Arrays.stream(ids, 0, size).iterator();
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(4, size + (size >> 1)));
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookVersionView;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+public class BookVersions {
+
+    private static final Long REMOVED = Long.MIN_VALUE;
+
+    private final BookRepository repository;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public BookVersions(BookRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<BookVersionView> entries = repository.streamVersionIndex()) {
+            entries.filter(entry -> entry.getVersion() != null)
+                    .forEach(entry -> versions.putIfAbsent(entry.getId(), entry.getVersion()));
+        }
+        versions.values().removeIf(REMOVED::equals);
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Versão conhecida do livro sem consultar o banco. Vazio quando o livro não está no mapa.
+     */
+    public Optional<Long> versionOf(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Long version = versions.get(id);
+        return REMOVED.equals(version) ? Optional.empty() : Optional.ofNullable(version);
+    }
+
+    public void register(Book book) {
+        if (book == null || book.getId() == null || book.getVersion() == null) {
+            return;
+        }
+        versions.merge(book.getId(), book.getVersion(), Math::max);
+    }
+
+    public void unregister(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        if (loaded) {
+            versions.remove(book.getId());
+        } else {
+            versions.put(book.getId(), REMOVED);
+        }
+    }
+}
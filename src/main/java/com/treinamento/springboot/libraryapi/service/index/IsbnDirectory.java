@@ -0,0 +1,81 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookIsbnView;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Component
+public class IsbnDirectory {
+
+    private final BookRepository repository;
+    private final BloomFilter filter;
+    private final Map<String, Long> ids;
+    private volatile boolean loaded;
+
+    public IsbnDirectory(BookRepository repository,
+                         @Value("${library.isbn-directory.expected-books:1000000}") long expectedBooks,
+                         @Value("${library.isbn-directory.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.filter = new BloomFilter(expectedBooks, falsePositiveRate);
+        this.ids = new ConcurrentHashMap<>((int) Math.min(expectedBooks, 1 << 20));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<BookIsbnView> entries = repository.streamIsbnIndex()) {
+            entries.filter(entry -> entry.getIsbn() != null).forEach(entry -> {
+                filter.put(entry.getIsbn());
+                ids.putIfAbsent(entry.getIsbn(), entry.getId());
+            });
+        }
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean mightContain(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        return !loaded || filter.mightContain(isbn);
+    }
+
+    public Optional<Long> idOf(String isbn) {
+        if (!mightContain(isbn)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(ids.get(isbn));
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public void register(Book book) {
+        if (book == null || book.getId() == null || book.getIsbn() == null) {
+            return;
+        }
+        filter.put(book.getIsbn());
+        ids.put(book.getIsbn(), book.getId());
+    }
+
+    public void unregister(Book book) {
+        if (book == null || book.getIsbn() == null) {
+            return;
+        }
+        ids.remove(book.getIsbn(), book.getId());
+    }
+}
@@ -0,0 +1,159 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Bitmap, indexado pelo id do livro, dos livros com empréstimo em aberto. Carregado da tabela de empréstimos na
+ * subida e mantido pelo {@code LoanService} depois de cada commit de empréstimo ou devolução. Ids fora do
+ * intervalo de um {@code int} não cabem no bitmap e ficam como desconhecidos, assim como tudo antes da carga.
+ */
+@Component
+public class LoanedBooks {
+
+    private final LoanRepository repository;
+    private final BitSet loaned = new BitSet();
+    private final Set<Long> releasedWhileLoading = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private volatile boolean overflow;
+
+    public LoanedBooks(LoanRepository repository) {
+        this.repository = repository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        try (Stream<Long> bookIds = repository.streamActiveBookIds()) {
+            bookIds.forEach(bookId -> {
+                lock.writeLock().lock();
+                try {
+                    if (!releasedWhileLoading.contains(bookId)) {
+                        set(bookId, true);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+        lock.writeLock().lock();
+        try {
+            releasedWhileLoading.clear();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Se o livro tem empréstimo em aberto, sem consultar o banco. Vazio quando o bitmap não sabe responder.
+     */
+    public Optional<Boolean> isLoaned(Long bookId) {
+        if (!loaded || !fits(bookId)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(loaned.get(bookId.intValue()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Mantém de {@code bookIds} os livros disponíveis ({@code available}) ou emprestados. Vazio quando o bitmap
+     * não sabe responder por algum deles.
+     */
+    public Optional<Set<Long>> retain(Set<Long> bookIds, boolean available) {
+        if (!loaded || !bookIds.stream().allMatch(LoanedBooks::fits)) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(bookIds.stream()
+                    .filter(bookId -> loaned.get(bookId.intValue()) != available)
+                    .collect(Collectors.toSet()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de todos os livros emprestados, quando são no máximo {@code max}; vazio acima disso ou antes da carga.
+     */
+    public Optional<List<Long>> loanedIds(int max) {
+        if (!loaded || overflow) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (loaned.cardinality() > max) {
+                return Optional.empty();
+            }
+            List<Long> ids = new ArrayList<>(loaned.cardinality());
+            loaned.stream().forEach(bookId -> ids.add((long) bookId));
+            return Optional.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void lend(Long bookId) {
+        if (bookId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            releasedWhileLoading.remove(bookId);
+            set(bookId, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void release(Long bookId) {
+        if (bookId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                releasedWhileLoading.add(bookId);
+            }
+            set(bookId, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void set(Long bookId, boolean value) {
+        if (fits(bookId)) {
+            loaned.set(bookId.intValue(), value);
+        } else if (value) {
+            overflow = true;
+        }
+    }
+
+    private static boolean fits(Long bookId) {
+        return bookId != null && bookId >= 0 && bookId <= Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,64 @@
+package com.treinamento.springboot.libraryapi.service.io;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Posição de uma página por cursor: o valor da chave de ordenação e o id do último livro. Livros com a chave nula
+ * ficam sempre no fim, nas duas direções, e o cursor registra se o último valor era nulo.
+ */
+public record BookCursor(Sort.Order order, String value, Long id) {
+
+    public static final Set<String> SORT_PROPERTIES = Set.of("id", "title", "author", "isbn");
+
+    private static final char SEPARATOR = '\n';
+
+    public static BookCursor after(Book book, Sort.Order order) {
+        return new BookCursor(order, valueOf(book, order.getProperty()), book.getId());
+    }
+
+    /**
+     * Formato: propriedade, direção, id, marcador de nulo ({@code 0} ou {@code 1}) e o valor por último, para que um
+     * valor com quebra de linha não desloque os demais campos.
+     */
+    public static BookCursor decode(String cursor, Sort.Order order) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Cursor inválido");
+        }
+        String[] parts = decoded.split(String.valueOf(SEPARATOR), 5);
+        if (parts.length != 5
+                || !parts[0].equals(order.getProperty())
+                || !parts[1].equals(order.getDirection().name())
+                || !(parts[3].equals("0") || parts[3].equals("1"))) {
+            throw new BusinessException("Cursor inválido");
+        }
+        try {
+            return new BookCursor(order, parts[3].equals("1") ? null : parts[4], Long.valueOf(parts[2]));
+        } catch (NumberFormatException ex) {
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+
+    public String encode() {
+        String raw = order.getProperty() + SEPARATOR + order.getDirection().name() + SEPARATOR + id + SEPARATOR
+                + (value == null ? "1" : "0") + SEPARATOR + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String valueOf(Book book, String property) {
+        return switch (property) {
+            case "title" -> book.getTitle();
+            case "author" -> book.getAuthor();
+            case "isbn" -> book.getIsbn();
+            default -> String.valueOf(book.getId());
+        };
+    }
+}
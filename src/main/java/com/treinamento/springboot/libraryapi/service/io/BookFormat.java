@@ -0,0 +1,42 @@
+package com.treinamento.springboot.libraryapi.service.io;
+
+import org.springframework.http.MediaType;
+
+public enum BookFormat {
+    NDJSON(BookFormat.NDJSON_VALUE),
+    CSV(BookFormat.CSV_VALUE);
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    BookFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static BookFormat of(String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (BookFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(type)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + contentType);
+    }
+
+    public static BookFormat accepting(String accept) {
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            for (BookFormat format : values()) {
+                if (type.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + accept);
+    }
+}
@@ -0,0 +1,11 @@
+package com.treinamento.springboot.libraryapi.service.io;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Página de livros e o tipo de total que ela carrega. Com {@link BookTotal#NONE} é só um {@link Slice}; nos
+ * demais casos é uma {@link org.springframework.data.domain.Page} cujo total é exato ou estimado.
+ */
+public record BookPage(Slice<BookDTO> books, BookTotal total) {
+}
@@ -0,0 +1,36 @@
+package com.treinamento.springboot.libraryapi.service.io;
+
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Tipo de total de uma página de livros: contagem exata, estimativa sem o {@code COUNT(*)} completo ou nenhum
+ * total (só se há próxima página). A estimativa pedida volta como {@link #EXACT} quando consegue contar tudo e como
+ * {@link #LOWER_BOUND}, que só aparece na resposta, quando para de contar: há pelo menos aquele total.
+ */
+public enum BookTotal {
+    EXACT,
+    ESTIMATE,
+    LOWER_BOUND,
+    NONE;
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tipo pedido no parâmetro {@code total}; nulo quando ausente, para o serviço escolher pelo filtro.
+     */
+    public static BookTotal of(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (BookTotal total : values()) {
+            if (total != LOWER_BOUND && total.value().equalsIgnoreCase(value.trim())) {
+                return total;
+            }
+        }
+        throw new BusinessException("Total não suportado: " + value);
+    }
+}
@@ -0,0 +1,44 @@
+package com.treinamento.springboot.libraryapi.service.io;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de empréstimos, ordenada do mais recente para o mais antigo por (loanDate, id).
+ */
+public record LoanCursor(LocalDate loanDate, Long id) {
+
+    private static final char SEPARATOR = '\n';
+
+    public static LoanCursor after(Loan loan) {
+        return new LoanCursor(loan.getLoanDate(), loan.getId());
+    }
+
+    public static LoanCursor decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Cursor inválido");
+        }
+        String[] parts = decoded.split(String.valueOf(SEPARATOR), 2);
+        if (parts.length != 2) {
+            throw new BusinessException("Cursor inválido");
+        }
+        try {
+            return new LoanCursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new BusinessException("Cursor inválido");
+        }
+    }
+
+    public String encode() {
+        String raw = String.valueOf(loanDate) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.treinamento.springboot.libraryapi.service.job;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.JobCheckpoint;
+import com.treinamento.springboot.libraryapi.api.model.repository.JobCheckpointRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanKeyView;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marca como atrasados os empréstimos não devolvidos há mais de {@code library.loans.overdue.days} dias.
+ * Percorre os empréstimos por (loanDate, id) em blocos, marca cada bloco em uma transação curta no executor
+ * e grava um checkpoint depois de cada rodada, para continuar de onde parou após um restart.
+ */
+@Slf4j
+@Component
+public class OverdueLoanJob implements DisposableBean {
+
+    static final String NAME = "overdue-loans";
+    private static final LocalDate START_DATE = LocalDate.EPOCH;
+    private static final long START_ID = 0L;
+
+    private final LoanRepository loanRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+    private final Clock clock;
+    private final int overdueDays;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OverdueLoanJob(LoanRepository loanRepository,
+                          JobCheckpointRepository checkpointRepository,
+                          PlatformTransactionManager transactionManager,
+                          Clock clock,
+                          @Value("${library.loans.overdue.days:14}") int overdueDays,
+                          @Value("${library.loans.overdue.chunk-size:500}") int chunkSize,
+                          @Value("${library.loans.overdue.parallelism:2}") int parallelism) {
+        this.loanRepository = loanRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("overdue-scan-"));
+        this.clock = clock;
+        this.overdueDays = overdueDays;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Scheduled(cron = "${library.loans.overdue.cron:0 0 3 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long marked = scan(LocalDate.now(clock));
+            log.info("Overdue scan marked {} loans", marked);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public long scan(LocalDate today) {
+        LocalDate cutoff = today.minusDays(overdueDays);
+        JobCheckpoint checkpoint = checkpointRepository.findById(NAME)
+                .orElseGet(() -> JobCheckpoint.builder().name(NAME).lastLoanDate(START_DATE).lastLoanId(START_ID).build());
+        long marked = 0;
+        while (true) {
+            List<List<Long>> chunks = new ArrayList<>(parallelism);
+            LoanKeyView last = null;
+            for (int i = 0; i < parallelism; i++) {
+                LocalDate afterDate = last == null ? checkpoint.getLastLoanDate() : last.getLoanDate();
+                Long afterId = last == null ? checkpoint.getLastLoanId() : last.getId();
+                List<LoanKeyView> keys = readTransaction.execute(status -> loanRepository
+                        .findUnreturnedKeysAfter(cutoff, afterDate, afterId, PageRequest.of(0, chunkSize)));
+                if (keys.isEmpty()) {
+                    break;
+                }
+                chunks.add(keys.stream().map(LoanKeyView::getId).toList());
+                last = keys.get(keys.size() - 1);
+                if (keys.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (chunks.isEmpty()) {
+                return marked;
+            }
+            marked += chunks.stream()
+                    .map(ids -> CompletableFuture.supplyAsync(() -> markOverdue(ids), executor))
+                    .toList()
+                    .stream()
+                    .mapToInt(CompletableFuture::join)
+                    .sum();
+            checkpoint.setLastLoanDate(last.getLoanDate());
+            checkpoint.setLastLoanId(last.getId());
+            checkpoint.setUpdatedAt(LocalDateTime.now(clock));
+            JobCheckpoint current = checkpoint;
+            checkpoint = writeTransaction.execute(status -> checkpointRepository.save(current));
+        }
+    }
+
+    private int markOverdue(List<Long> ids) {
+        return writeTransaction.execute(status -> loanRepository.markOverdue(ids));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,41 @@
+create sequence if not exists book_seq start with 1 increment by 50;
+create sequence if not exists loan_seq start with 1 increment by 50;
+
+create table if not exists book (
+    id bigint not null,
+    author varchar(255),
+    isbn varchar(255),
+    title varchar(255),
+    version bigint,
+    primary key (id),
+    constraint uk_book_isbn unique (isbn)
+);
+
+create index if not exists idx_book_title_id on book (title, id);
+create index if not exists idx_book_author_id on book (author, id);
+
+create table if not exists loan (
+    id bigint not null,
+    active_book_id bigint,
+    customer varchar(100),
+    loan_date date,
+    overdue boolean,
+    returned boolean,
+    id_book bigint,
+    primary key (id),
+    constraint uk_loan_active_book unique (active_book_id),
+    constraint fk_loan_book foreign key (id_book) references book (id)
+);
+
+create index if not exists idx_loan_returned_date on loan (returned, loan_date, id);
+create index if not exists idx_loan_book_returned on loan (id_book, returned);
+create index if not exists idx_loan_customer_date on loan (customer, loan_date);
+create index if not exists idx_loan_date_id on loan (loan_date, id);
+
+create table if not exists job_checkpoint (
+    name varchar(50) not null,
+    last_loan_date date,
+    last_loan_id bigint,
+    updated_at timestamp(6),
+    primary key (name)
+);
@@ -0,0 +1,79 @@
+package com.treinamento.springboot.libraryapi.api.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorBodiesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ErrorBodies errorBodies = new ErrorBodies(objectMapper);
+
+    @Test
+    void deveriaReutilizarCorpoSerializadoDaMesmaMensagem() throws Exception {
+        // execucao
+        ResponseEntity<byte[]> primeira = errorBodies.response(HttpStatus.BAD_REQUEST, "Isbn já cadastrado");
+        ResponseEntity<byte[]> segunda = errorBodies.response(HttpStatus.BAD_REQUEST, "Isbn já cadastrado");
+
+        // verificacao
+        assertThat(segunda.getBody()).isSameAs(primeira.getBody());
+        assertThat(primeira.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(objectMapper.readTree(primeira.getBody()).get("errors").get(0).asText()).isEqualTo("Isbn já cadastrado");
+        assertThat(objectMapper.readTree(errorBodies.body(null)).get("errors").get(0).isNull()).isTrue();
+    }
+
+    @Test
+    void deveriaLimitarQuantidadeDeMensagensEmCache() throws Exception {
+        // cenario
+        for (int i = 0; i < ErrorBodies.MAX_CACHED; i++) {
+            errorBodies.body("Ordenação não suportada: " + i);
+        }
+
+        // execucao
+        byte[] primeira = errorBodies.body("Cursor inválido");
+        byte[] segunda = errorBodies.body("Cursor inválido");
+
+        // verificacao
+        assertThat(segunda).isNotSameAs(primeira).isEqualTo(primeira);
+        assertThat(objectMapper.readTree(segunda).get("errors").get(0).asText()).isEqualTo("Cursor inválido");
+    }
+
+    @Test
+    void deveriaSerializarNoFormatoNegociadoPeloAccept() throws Exception {
+        // cenario
+        CBORMapper cbor = new CBORMapper();
+        Map<MediaType, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put(MediaType.APPLICATION_JSON, objectMapper);
+        mappers.put(MediaType.APPLICATION_CBOR, cbor);
+        ErrorBodies negociados = new ErrorBodies(mappers);
+
+        // execucao
+        ResponseEntity<byte[]> binario = negociados.response(HttpStatus.NOT_FOUND, "Book not found", "application/cbor");
+        ResponseEntity<byte[]> preferido = negociados.response(HttpStatus.NOT_FOUND, "Book not found",
+                "application/json;q=0.5, application/cbor");
+        ResponseEntity<byte[]> qualquer = negociados.response(HttpStatus.NOT_FOUND, "Book not found", "*/*");
+        ResponseEntity<byte[]> invalido = negociados.response(HttpStatus.NOT_FOUND, "Book not found", "não/é/tipo");
+
+        // verificacao
+        assertThat(binario.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(cbor.readTree(binario.getBody()).get("errors").get(0).asText()).isEqualTo("Book not found");
+        assertThat(preferido.getBody()).isSameAs(binario.getBody());
+        assertThat(qualquer.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(invalido.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void deveriaCriarExcecoesEsperadasSemStackTrace() {
+        assertThat(new BusinessException("Book already loaned").getStackTrace()).isEmpty();
+        assertThat(new StatusException(HttpStatus.NOT_FOUND).getStackTrace()).isEmpty();
+    }
+}
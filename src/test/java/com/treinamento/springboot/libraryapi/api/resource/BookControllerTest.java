@@ -1,10 +1,26 @@
 package com.treinamento.springboot.libraryapi.api.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteResultDTO;
 import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportRejectDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportResultDTO;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.config.MappingMetrics;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.BookBulkDeleteService;
+import com.treinamento.springboot.libraryapi.service.BookExportService;
+import com.treinamento.springboot.libraryapi.service.BookImportService;
 import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import com.treinamento.springboot.libraryapi.service.io.BookPage;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
@@ -13,32 +29,49 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = BookControler.class) // serve para testes unitarios
 @AutoConfigureMockMvc
+@Import({MappingMetrics.class, SimpleMeterRegistry.class})
 class BookControllerTest {
 
     @Autowired
@@ -46,6 +79,12 @@ class BookControllerTest {
     private static final String BOOK_API = "/api/books";
     @MockBean
     private BookService bookServiceMock;
+    @MockBean
+    private BookImportService bookImportServiceMock;
+    @MockBean
+    private BookExportService bookExportServiceMock;
+    @MockBean
+    private BookBulkDeleteService bookBulkDeleteServiceMock;
 
     @Test
     void deveriaCriarUmLivroComSucesso() throws Exception {
@@ -126,7 +165,12 @@ class BookControllerTest {
                 .isbn(createNewBook().getIsbn())
                 .build();
 
-        given(bookServiceMock.getById(id)).willReturn(of(book));
+        given(bookServiceMock.getView(id)).willReturn(of(BookDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .build()));
 
         // execucao
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -143,11 +187,33 @@ class BookControllerTest {
                 .andExpect(jsonPath("isbn").value(createNewBook().getIsbn()));
     }
 
+    @Test
+    void deveriaRetornarEtagForteDoLivro() throws Exception {
+        given(bookServiceMock.getView(1L)).willReturn(of(BookDTO.builder().id(1L).title("As aventuras").version(2L).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    @Test
+    void deveriaRetornarNaoModificadoSemConsultarLivroQuandoVersaoNaoMudou() throws Exception {
+        given(bookServiceMock.getVersion(1L)).willReturn(of(2L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(bookServiceMock, Mockito.never()).getView(anyLong());
+    }
+
     @Test
     void deveriaLancarMensagemErroAoBuscarLivroInexistente() throws Exception {
 
         // cenario
-        given(bookServiceMock.getById(Mockito.anyLong())).willReturn(Optional.empty());
+        given(bookServiceMock.getView(Mockito.anyLong())).willReturn(Optional.empty());
 
         // execucao
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -192,6 +258,30 @@ class BookControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void deveriaRemoverLivrosEmLote() throws Exception {
+
+        // cenario
+        BookBulkDeleteDTO request = BookBulkDeleteDTO.builder().author("Editora Retirada").build();
+        given(bookBulkDeleteServiceMock.deleteBooks(request))
+                .willReturn(BookBulkDeleteResultDTO.builder().matched(3).deleted(2).skippedWithLoans(1).build());
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/bulk-delete"))
+                .content(new ObjectMapper().writeValueAsString(request))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("matched").value(3))
+                .andExpect(jsonPath("deleted").value(2))
+                .andExpect(jsonPath("skippedWithLoans").value(1));
+    }
+
     @Test
     void deveriaAtualizarBook() throws Exception {
 
@@ -224,6 +314,87 @@ class BookControllerTest {
                 .andExpect(jsonPath("isbn").value("8528620301"));
     }
 
+    @Test
+    void deveriaAtualizarBookComUmUpdateCondicionalQuandoHouverIfMatch() throws Exception {
+
+        // cenario
+        Long id = 1L;
+        given(bookServiceMock.update(id, 3L, "Star Wars", "George Lucas"))
+                .willReturn(of(Book.builder().id(id).title("Star Wars").author("George Lucas").isbn("8528620301").version(4L).build()));
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/" + id))
+                .param("title", "Star Wars")
+                .param("author", "George Lucas")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("version").value(4))
+                .andExpect(jsonPath("isbn").value("8528620301"));
+        Mockito.verify(bookServiceMock, Mockito.never()).getById(Mockito.anyLong());
+    }
+
+    @Test
+    void naoDeveriaUsarVersaoConhecidaQuandoClienteNaoEnviarPreCondicao() throws Exception {
+
+        // cenario
+        Long id = 1L;
+        Book book = Book.builder().id(id).title("Star Wars").author("George Lucas").isbn("8528620301").version(3L).build();
+        given(bookServiceMock.getVersion(id)).willReturn(of(3L));
+        given(bookServiceMock.getById(id)).willReturn(of(book));
+        given(bookServiceMock.update(book)).willReturn(book.toBuilder().version(4L).build());
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/" + id))
+                .param("title", "Star Wars")
+                .param("author", "George Lucas")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("version").value(4));
+        Mockito.verify(bookServiceMock, Mockito.never())
+                .update(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void deveriaRetornarConflitoAoAtualizarBookComVersaoDesatualizada() throws Exception {
+
+        // cenario
+        given(bookServiceMock.update(1L, 2L, "Star Wars", "George Lucas"))
+                .willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/" + 1L))
+                .param("title", "Star Wars")
+                .param("author", "George Lucas")
+                .param("version", "2")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("errors[0]").value("Book was changed by another request"));
+    }
+
+    @Test
+    void deveriaRetornarPreconditionFailedComIfMatchInvalido() throws Exception {
+        mockMvc
+                .perform(MockMvcRequestBuilders.put(BOOK_API.concat("/" + 1L)).header(HttpHeaders.IF_MATCH, "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     @Test
     void deveriaLancarMensagemErroAoAtualizarBookInexistente() throws Exception {
 
@@ -255,8 +426,14 @@ class BookControllerTest {
                 .isbn(createNewBook().getIsbn())
                 .build();
 
-        BDDMockito.given(bookServiceMock.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
-                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+        BookDTO bookDTO = BookDTO.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .author(book.getAuthor())
+                .isbn(book.getIsbn())
+                .build();
+        BDDMockito.given(bookServiceMock.findViews(Mockito.any(Book.class), Mockito.isNull(), Mockito.any(Pageable.class), Mockito.isNull()))
+                .willReturn(new BookPage(new PageImpl<>(Arrays.asList(bookDTO), PageRequest.of(0, 100), 1), BookTotal.EXACT));
 
         String queryString = String.format("?title=%s&author=%s&page=0&size=100", book.getTitle(), book.getAuthor());
 
@@ -268,7 +445,135 @@ class BookControllerTest {
                 .andExpect(jsonPath("content", hasSize(1)))
                 .andExpect(jsonPath("totalElements").value(1))
                 .andExpect(jsonPath("pageable.pageSize").value(100))
-                .andExpect(jsonPath("pageable.pageNumber").value(0));
+                .andExpect(jsonPath("pageable.pageNumber").value(0))
+                .andExpect(header().string("X-Total-Kind", "exact"));
+    }
+
+    @Test
+    void deveriaInformarPisoDoTotalQuandoEstimativaParaDeContar() throws Exception {
+        // cenario
+        BookDTO bookDTO = BookDTO.builder().id(1L).title("As aventuras").version(0L).build();
+        given(bookServiceMock.findViews(Mockito.any(Book.class), Mockito.isNull(), Mockito.any(Pageable.class),
+                Mockito.eq(BookTotal.ESTIMATE)))
+                .willReturn(new BookPage(new PageImpl<>(List.of(bookDTO), PageRequest.of(0, 1), 1000), BookTotal.LOWER_BOUND));
+
+        // execucao / verificacao
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras&size=1&total=estimate")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Kind", "lower_bound"))
+                .andExpect(jsonPath("totalElements").value(1000));
+    }
+
+    @Test
+    void naoDeveriaAceitarPisoComoTotalPedido() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras&total=lower_bound")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveriaBuscarSemTotalQuandoPedido() throws Exception {
+        // cenario
+        BookDTO bookDTO = BookDTO.builder().id(1L).title("As aventuras").version(0L).build();
+        given(bookServiceMock.findViews(Mockito.any(Book.class), Mockito.isNull(), Mockito.any(Pageable.class),
+                Mockito.eq(BookTotal.NONE)))
+                .willReturn(new BookPage(new SliceImpl<>(List.of(bookDTO), PageRequest.of(0, 1), true), BookTotal.NONE));
+
+        // execucao / verificacao
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras&size=1&total=none")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Kind", "none"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("last").value(false))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    void deveriaRecusarTipoDeTotalDesconhecido() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?total=aproximado")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Total não suportado: aproximado"));
+    }
+
+    @Test
+    void deveriaBuscarBookPorCursor() throws Exception {
+        Book book = Book.builder().id(1L).title("As aventuras").author("Arthur").isbn("001").build();
+        BDDMockito.given(bookServiceMock.findAfter(Mockito.any(Book.class), Mockito.eq("abc"), Mockito.eq(Sort.by("title")), Mockito.eq(10)))
+                .willReturn(new CursorSliceDTO<>(List.of(book), "def"));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?author=Arthur&cursor=abc&size=10&sort=title"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(1))
+                .andExpect(jsonPath("next").value("def"))
+                .andExpect(jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    void deveriaImportarLivrosEmLote() throws Exception {
+        String ndjson = "{\"title\":\"As aventuras\",\"author\":\"Arthur\",\"isbn\":\"001\"}\n{\"title\":\"\"}\n";
+        BookImportResultDTO resultado = BookImportResultDTO.builder()
+                .processed(2)
+                .imported(1)
+                .rejected(1)
+                .rejects(List.of(BookImportRejectDTO.builder().line(2).errors(List.of("isbn: must not be empty")).build()))
+                .build();
+        given(bookImportServiceMock.importBooks(Mockito.any(InputStream.class), Mockito.eq(BookFormat.NDJSON)))
+                .willReturn(resultado);
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/import"))
+                .contentType(BookFormat.NDJSON_VALUE)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(ndjson);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("processed").value(2))
+                .andExpect(jsonPath("imported").value(1))
+                .andExpect(jsonPath("rejected").value(1))
+                .andExpect(jsonPath("rejects[0].line").value(2));
+    }
+
+    @Test
+    void deveriaRetornarNaoModificadoQuandoPaginaNaoMudou() throws Exception {
+        BookDTO bookDTO = BookDTO.builder().id(1L).title("As aventuras").version(0L).build();
+        given(bookServiceMock.findViews(Mockito.any(Book.class), Mockito.isNull(), Mockito.any(Pageable.class), Mockito.isNull()))
+                .willReturn(new BookPage(new PageImpl<>(List.of(bookDTO), PageRequest.of(0, 10), 1), BookTotal.EXACT));
+
+        String etag = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("W/");
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?title=aventuras")).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void deveriaExportarOCatalogoEmCsv() throws Exception {
+        given(bookExportServiceMock.exportBooks(Mockito.any(OutputStream.class), Mockito.eq(BookFormat.CSV)))
+                .willAnswer(invocation -> {
+                    OutputStream output = invocation.getArgument(0);
+                    output.write("title,author,isbn\nAs aventuras,Arthur,001\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult resultado = mockMvc
+                .perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export")).accept(BookFormat.CSV_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(resultado.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BookFormat.CSV_VALUE))
+                .andExpect(content().string("title,author,isbn\nAs aventuras,Arthur,001\n"));
     }
 
     private static BookDTO createNewBook() {
@@ -278,4 +583,62 @@ class BookControllerTest {
                 .isbn("001")
                 .build();
     }
+
+    @Test
+    void deveriaBuscarBookEmCbor() throws Exception {
+        // cenario
+        BookDTO bookDTO = BookDTO.builder().id(1L).title("As aventuras").author("Fulano").isbn("001").version(0L).build();
+        given(bookServiceMock.findViews(Mockito.any(Book.class), Mockito.isNull(), Mockito.any(Pageable.class), Mockito.isNull()))
+                .willReturn(new BookPage(new PageImpl<>(List.of(bookDTO), PageRequest.of(0, 10), 1), BookTotal.EXACT));
+
+        // execucao
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // verificacao
+        JsonNode page = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.get("content").get(0).get("isbn").asText()).isEqualTo("001");
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void deveriaCriarLivroEnviadoEmSmile() throws Exception {
+        // cenario
+        BookDTO dto = createNewBook();
+        given(bookServiceMock.save(Mockito.any(Book.class)))
+                .willReturn(Book.builder().id(10L).title(dto.getTitle()).author(dto.getAuthor()).isbn(dto.getIsbn()).build());
+        SmileMapper smile = new SmileMapper();
+        MediaType smileType = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // execucao
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(BOOK_API)
+                        .contentType(smileType)
+                        .accept(smileType)
+                        .content(smile.writeValueAsBytes(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(smileType))
+                .andReturn();
+
+        // verificacao
+        assertThat(smile.readTree(result.getResponse().getContentAsByteArray()).get("id").asLong()).isEqualTo(10L);
+    }
+
+    @Test
+    void deveriaRetornarErroNoFormatoPedido() throws Exception {
+        // cenario
+        given(bookServiceMock.getView(anyLong())).willReturn(empty());
+
+        // execucao
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+                        .accept("application/json;q=0.5, application/cbor"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // verificacao
+        JsonNode erro = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(erro.get("errors")).hasSize(1);
+    }
 }
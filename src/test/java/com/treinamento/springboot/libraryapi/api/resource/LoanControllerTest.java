@@ -1,12 +1,21 @@
 package com.treinamento.springboot.libraryapi.api.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.api.dto.ReturnedLoanDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
 import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.config.MappingMetrics;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
 import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.LoanQueryService;
 import com.treinamento.springboot.libraryapi.service.LoanService;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.BDDMockito;
@@ -15,6 +24,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -23,8 +33,10 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +44,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles("test")
 @WebMvcTest(controllers = LoanController.class) // serve para testes unitarios
 @AutoConfigureMockMvc
+@Import({MappingMetrics.class, SimpleMeterRegistry.class})
 public class LoanControllerTest {
 
     static final String LOAN_API = "/api/loans";
@@ -43,6 +56,12 @@ public class LoanControllerTest {
     BookService bookService;
     @MockBean
     LoanService loanService;
+    @MockBean
+    LoanQueryService loanQueryService;
+    @MockBean
+    LoanedBooks loanedBooks;
+    @Autowired
+    SimpleMeterRegistry registry;
 
     @Test
     void deveriaRealizarEmprestimo() throws Exception {
@@ -103,4 +122,124 @@ public class LoanControllerTest {
                 .andExpect(jsonPath("errors", hasSize(1)))
                 .andExpect(jsonPath("errors[0]").value("Book already loaned"));
     }
+
+    @Test
+    void deveriaListarEmprestimosComDadosDoLivro() throws Exception {
+        // cenario
+        Book book = Book.builder().id(7L).isbn("123").title("Aventuras").author("Autor").version(0L).build();
+        Loan loan = Loan.builder().id(1L).customer("Fulano").book(book).loanDate(LocalDate.of(2023, 1, 10))
+                .returned(false).build();
+        BDDMockito.given(loanQueryService.find("123", "Fulano", false, null, 20))
+                .willReturn(new CursorSliceDTO<>(List.of(loan), "proximo"));
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(LOAN_API + "?isbn=123&customer=Fulano&returned=false&size=20")
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].id").value(1))
+                .andExpect(jsonPath("content[0].isbn").value("123"))
+                .andExpect(jsonPath("content[0].loanDate").value("2023-01-10"))
+                .andExpect(jsonPath("content[0].returned").value(false))
+                .andExpect(jsonPath("content[0].book.title").value("Aventuras"))
+                .andExpect(jsonPath("next").value("proximo"));
+    }
+
+    @Test
+    void deveriaMedirOMapeamentoUmaVezPorPagina() throws Exception {
+        // cenario
+        Book book = Book.builder().id(7L).isbn("123").title("Aventuras").author("Autor").version(0L).build();
+        List<Loan> loans = List.of(
+                Loan.builder().id(1L).customer("Ciclano").book(book).loanDate(LocalDate.of(2023, 1, 10)).build(),
+                Loan.builder().id(2L).customer("Ciclano").book(book).loanDate(LocalDate.of(2023, 1, 11)).build());
+        BDDMockito.given(loanQueryService.find(null, "Ciclano", null, null, 20))
+                .willReturn(new CursorSliceDTO<>(loans, null));
+        long antes = registry.find("library.mapping").tag("site", "loans.find").timers().stream()
+                .mapToLong(Timer::count).sum();
+
+        // execucao
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API + "?customer=Ciclano&size=20"))
+                .andExpect(status().isOk());
+
+        // verificacao
+        assertThat(registry.get("library.mapping").tag("site", "loans.find").timer().count()).isEqualTo(antes + 1);
+    }
+
+    @Test
+    void deveriaRecusarEmprestimoDeLivroEmprestadoSemChamarOServico() throws Exception {
+        // cenario
+        LoanDTO dto = LoanDTO.builder().isbn("123").customer("Fulano").build();
+        Book book = Book.builder().id(1L).isbn("123").build();
+        BDDMockito.given(bookService.getBookByIsbn("123")).willReturn(Optional.of(book));
+        BDDMockito.given(loanedBooks.isLoaned(1L)).willReturn(Optional.of(true));
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.post(LOAN_API)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(dto));
+
+        // verificacao
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("errors[0]").value("Book already loaned"));
+        Mockito.verify(loanService, Mockito.never()).save(Mockito.any(Loan.class));
+    }
+
+    @Test
+    void deveriaDevolverLivro() throws Exception {
+        // cenario
+        Book book = Book.builder().id(1L).isbn("123").build();
+        Loan loan = Loan.builder().id(1L).customer("Fulano").book(book).loanDate(LocalDate.now()).returned(true).build();
+        BDDMockito.given(loanService.returnLoan(1L)).willReturn(Optional.of(loan));
+
+        // execucao
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.patch(LOAN_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(ReturnedLoanDTO.builder().returned(true).build()));
+
+        // verificacao
+        mockMvc.perform(requestBuilder)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("returned").value(true));
+    }
+
+    @Test
+    void deveriaRetornarNotFoundAoDevolverEmprestimoInexistente() throws Exception {
+        BDDMockito.given(loanService.returnLoan(1L)).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders.patch(LOAN_API.concat("/1"))
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(ReturnedLoanDTO.builder().returned(true).build()));
+
+        mockMvc.perform(requestBuilder).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deveriaListarEmprestimosEmCbor() throws Exception {
+        // cenario
+        Book book = Book.builder().id(7L).isbn("123").title("Aventuras").author("Autor").version(0L).build();
+        Loan loan = Loan.builder().id(1L).customer("Fulano").book(book).loanDate(LocalDate.of(2023, 1, 10))
+                .returned(false).build();
+        BDDMockito.given(loanQueryService.find(null, "Fulano", null, null, 20))
+                .willReturn(new CursorSliceDTO<>(List.of(loan), null));
+
+        // execucao
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API + "?customer=Fulano&size=20")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // verificacao
+        JsonNode slice = new CBORMapper().readTree(body);
+        assertThat(slice.get("content").get(0).get("loanDate").asText()).isEqualTo("2023-01-10");
+        assertThat(slice.get("content").get(0).get("book").get("isbn").asText()).isEqualTo("123");
+    }
 }
@@ -0,0 +1,88 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara o resultado JSON do JMH com um baseline salvo e falha quando algum benchmark piorar
+ * mais que a tolerância. Sem baseline também falha, em vez de passar sem comparar nada; com {@code gravar=true} o
+ * resultado vira o baseline. Uso:
+ * {@code BenchmarkBaselineCheck <resultado.json> <baseline.json> <tolerancia> [gravar]}.
+ */
+public final class BenchmarkBaselineCheck {
+
+    private BenchmarkBaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean record = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        if (record) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.printf("Baseline %s recorded from %s%n", baseline, result);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.err.printf("Baseline %s not found: nothing to compare against. Run on the reference machine with "
+                    + "-Dbenchmark.record=true to record it from %s, then commit it.%n", baseline, result);
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> current = index(objectMapper.readTree(result.toFile()));
+        Map<String, JsonNode> reference = index(objectMapper.readTree(baseline.toFile()));
+
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode previous = reference.get(entry.getKey());
+            if (previous == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            double score = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double previousScore = previous.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().path("mode").asText());
+            double change = previousScore == 0 ? 0 : (score - previousScore) / previousScore;
+            double regression = higherIsBetter ? -change : change;
+            String status = regression > tolerance ? "REGRESSION" : "OK";
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", status, entry.getKey(), previousScore, score,
+                    entry.getValue().path("primaryMetric").path("scoreUnit").asText(), change * 100);
+            if (regression > tolerance) {
+                regressions.add(entry.getKey());
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.err.printf("%d benchmark(s) regressed more than %.0f%%: %s%n", regressions.size(), tolerance * 100, regressions);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byName.put(key.toString(), result);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,81 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private static final int CATALOG_SIZE = 10_000;
+
+    private final AtomicLong isbns = new AtomicLong();
+    private final Pageable firstPage = PageRequest.of(0, 20);
+    private final Pageable deepPage = PageRequest.of(400, 20);
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+        context = LibraryContext.start();
+        LibraryContext.seedBooks(context, CATALOG_SIZE);
+        bookService = context.getBean(BookService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book save() {
+        Book book = Book.builder()
+                .title("Benchmark")
+                .author("JMH")
+                .isbn("bench-" + isbns.incrementAndGet())
+                .build();
+        return bookService.save(book);
+    }
+
+    @Benchmark
+    public Page<Book> findAllFirstPage() {
+        return bookService.find(new Book(), firstPage);
+    }
+
+    @Benchmark
+    public Page<Book> findAllDeepPage() {
+        return bookService.find(new Book(), deepPage);
+    }
+
+    @Benchmark
+    public Page<Book> findByTitle() {
+        return bookService.find(Book.builder().title("volume 42").build(), firstPage);
+    }
+
+    @Benchmark
+    public Page<Book> findByAuthor() {
+        return bookService.find(Book.builder().author("autor 7").build(), firstPage);
+    }
+}
@@ -0,0 +1,90 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.treinamento.springboot.libraryapi.api.exception.ApiErros;
+import com.treinamento.springboot.libraryapi.api.exception.ErrorBodies;
+import com.treinamento.springboot.libraryapi.api.exception.StatusException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Throughput of the 404 and duplicate-ISBN responses through the whole MVC stack ({@code missingBook},
+ * {@code duplicateIsbn}; run it on an older commit for the "before" number), plus the exception and body
+ * work alone, with a full stack trace and per-request serialization ({@code stackTraceErrorBody}, the old path)
+ * and with the stackless exception and cached body ({@code stacklessErrorBody}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final String DUPLICATE = "{\"title\":\"Repetido\",\"author\":\"Autor\",\"isbn\":\"seed-1\"}";
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private ErrorBodies errorBodies;
+
+    @Setup
+    public void setUp() {
+        context = LibraryContext.startServer();
+        LibraryContext.seedBooks(context, CATALOG_SIZE);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+        errorBodies = new ErrorBodies(objectMapper);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int missingBook() throws Exception {
+        return mockMvc.perform(get("/api/books/{id}", Long.MAX_VALUE)).andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public int duplicateIsbn() throws Exception {
+        return mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(DUPLICATE))
+                .andReturn().getResponse().getStatus();
+    }
+
+    @Benchmark
+    public byte[] stackTraceErrorBody() throws JsonProcessingException {
+        ResponseStatusException ex = new ResponseStatusException(HttpStatus.NOT_FOUND);
+        return objectMapper.writeValueAsBytes(new ApiErros(ex));
+    }
+
+    @Benchmark
+    public byte[] stacklessErrorBody() {
+        StatusException ex = new StatusException(HttpStatus.NOT_FOUND);
+        return errorBodies.response(ex.getStatusCode(), ex.getReason()).getBody();
+    }
+}
@@ -0,0 +1,52 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.treinamento.springboot.libraryapi.LibraryApiApplication;
+import com.treinamento.springboot.libraryapi.service.BookImportService;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+final class LibraryContext {
+
+    private LibraryContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "spring.jpa.show-sql=false")
+                .run();
+    }
+
+    static ConfigurableApplicationContext startServer(Class<?>... sources) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(LibraryApiApplication.class)
+                .sources(sources)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn",
+                        "spring.jpa.show-sql=false",
+                        "server.port=0")
+                .run();
+    }
+
+    static void seedBooks(ConfigurableApplicationContext context, int count) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"title\":\"Aventuras volume ").append(i)
+                    .append("\",\"author\":\"Autor ").append(i % 100)
+                    .append("\",\"isbn\":\"seed-").append(i).append("\"}\n");
+        }
+        context.getBean(BookImportService.class).importBooks(
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), BookFormat.NDJSON);
+    }
+}
@@ -0,0 +1,72 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.treinamento.springboot.libraryapi.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.api.resource.LoanController;
+import com.treinamento.springboot.libraryapi.service.LoanService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanControllerBenchmark {
+
+    @Param("50000")
+    int catalogSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private LoanController loanController;
+    private LoanService loanService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup
+    public void setUp() {
+        context = LibraryContext.start();
+        LibraryContext.seedBooks(context, catalogSize);
+        loanController = context.getBean(LoanController.class);
+        loanService = context.getBean(LoanService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    /**
+     * Devolve pelo serviço, e não com um update direto, para o bitmap de livros emprestados liberar os livros da
+     * iteração; senão a próxima só mediria o "Book already loaned".
+     */
+    @TearDown(Level.Iteration)
+    public void returnBooks() {
+        jdbcTemplate.queryForList("select id from loan where returned = false", Long.class)
+                .forEach(loanService::returnLoan);
+        sequence.set(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long create() {
+        String isbn = "seed-" + (sequence.getAndIncrement() % catalogSize);
+        return loanController.create(LoanDTO.builder().isbn(isbn).customer("Fulano").build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanControllerBenchmarkTest {
+
+    @Test
+    void deveriaEmprestarOsMesmosLivrosEmDuasIteracoes() {
+        // cenario
+        LoanControllerBenchmark benchmark = new LoanControllerBenchmark();
+        benchmark.catalogSize = 20;
+        benchmark.setUp();
+        try {
+            for (int iteration = 0; iteration < 2; iteration++) {
+                // execucao
+                for (int i = 0; i < benchmark.catalogSize; i++) {
+                    // verificacao
+                    assertThat(benchmark.create()).isNotNull();
+                }
+                benchmark.returnBooks();
+            }
+        } finally {
+            benchmark.tearDown();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.LoanDTO;
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
+import com.treinamento.springboot.libraryapi.api.mapper.LoanMapper;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private LoanMapper loanMapper;
+    private Book book;
+    private BookDTO bookDTO;
+    private Loan loan;
+    private LoanDTO loanDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        bookMapper = Mappers.getMapper(BookMapper.class);
+        loanMapper = Mappers.getMapper(LoanMapper.class);
+        book = Book.builder().id(1L).title("As aventuras").author("Arthur").isbn("001").build();
+        bookDTO = BookDTO.builder().id(1L).title("As aventuras").author("Arthur").isbn("001").build();
+        loan = Loan.builder().id(1L).customer("Fulano").book(book).loanDate(LocalDate.now()).returned(false).build();
+        loanDTO = LoanDTO.builder().isbn("001").customer("Fulano").build();
+    }
+
+    @Benchmark
+    public BookDTO modelMapperBookToDto() {
+        return modelMapper.map(book, BookDTO.class);
+    }
+
+    @Benchmark
+    public BookDTO generatedBookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public Book modelMapperDtoToBook() {
+        return modelMapper.map(bookDTO, Book.class);
+    }
+
+    @Benchmark
+    public Book generatedDtoToBook() {
+        return bookMapper.toEntity(bookDTO);
+    }
+
+    @Benchmark
+    public LoanDTO modelMapperLoanToDto() {
+        return modelMapper.map(loan, LoanDTO.class);
+    }
+
+    @Benchmark
+    public LoanDTO generatedLoanToDto() {
+        return loanMapper.toDto(loan);
+    }
+
+    @Benchmark
+    public Loan modelMapperDtoToLoan() {
+        return modelMapper.map(loanDTO, Loan.class);
+    }
+
+    @Benchmark
+    public Loan generatedDtoToLoan() {
+        return loanMapper.toEntity(loanDTO);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MappingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots {@code LibraryApiApplication} from the thin jar built by {@code -Pstartup} in a fresh JVM and measures the
+ * time from process start to the first {@code 200} on {@code GET /api/books}, once with the default configuration
+ * and once with AOT, the {@code startup} profile and the CDS archive.
+ * <p>
+ * With {@code train} as argument it does the CDS training run instead: boots the optimized configuration with
+ * {@code -XX:ArchiveClassesAtExit}, serves a few requests so the request path is loaded too, and stops the JVM,
+ * which writes the archive.
+ */
+public class StartupBenchmark {
+
+    private static final Path JAR = Path.of(System.getProperty("startup.jar", "target/library-api-0.0.1-SNAPSHOT.jar"));
+    private static final Path ARCHIVE = Path.of(System.getProperty("startup.archive", "target/library-api.jsa"));
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(Long.getLong("startup.timeout", 120));
+    private static final List<String> OPTIMIZED = List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=startup");
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    public static void main(String[] args) throws Exception {
+        if (!Files.exists(JAR)) {
+            throw new IllegalStateException(JAR + " not found, build it with ./mvnw -Pstartup verify -DskipTests");
+        }
+        if (args.length > 0 && args[0].equals("train")) {
+            train();
+            return;
+        }
+        List<String> optimized = new ArrayList<>(OPTIMIZED);
+        if (Files.exists(ARCHIVE)) {
+            optimized.add("-XX:SharedArchiveFile=" + ARCHIVE);
+        } else {
+            System.out.println("no CDS archive at " + ARCHIVE + ", measuring without it");
+        }
+        Result baseline = measure("default", List.of());
+        Result startup = measure("startup", optimized);
+        System.out.println(baseline);
+        System.out.println(startup);
+        System.out.printf("speedup (median): %.2fx%n", baseline.median() / (double) startup.median());
+    }
+
+    private static void train() throws Exception {
+        Files.deleteIfExists(ARCHIVE);
+        List<String> jvmArgs = new ArrayList<>(OPTIMIZED);
+        jvmArgs.add("-XX:ArchiveClassesAtExit=" + ARCHIVE);
+        Launch launch = Launch.start("train", jvmArgs);
+        try {
+            long millis = launch.awaitFirstRequest();
+            for (String path : List.of("/api/books?title=a", "/api/books/1", "/api/books?page=1&size=5")) {
+                HTTP.send(launch.get(path), HttpResponse.BodyHandlers.discarding());
+            }
+            System.out.printf("training run served its first request after %d ms%n", millis);
+        } finally {
+            launch.stop();
+        }
+        if (!Files.exists(ARCHIVE)) {
+            throw new IllegalStateException("training run did not write " + ARCHIVE + ", see " + launch.log());
+        }
+        System.out.printf("CDS archive written to %s (%d KB)%n", ARCHIVE, Files.size(ARCHIVE) / 1024);
+    }
+
+    private static Result measure(String name, List<String> jvmArgs) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            Launch launch = Launch.start(name + "-" + i, jvmArgs);
+            try {
+                millis[i] = launch.awaitFirstRequest();
+            } finally {
+                launch.stop();
+            }
+        }
+        Arrays.sort(millis);
+        return new Result(name, millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+    }
+
+    record Launch(Process process, int port, Path log, long startNanos) {
+
+        static Launch start(String name, List<String> jvmArgs) throws IOException {
+            int port = freePort();
+            Path log = JAR.resolveSibling("startup-" + name + ".log");
+            List<String> command = new ArrayList<>();
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmArgs);
+            command.add("-jar");
+            command.add(JAR.toString());
+            command.add("--server.port=" + port);
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            return new Launch(process, port, log, start);
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+        }
+
+        long awaitFirstRequest() throws Exception {
+            long deadline = startNanos + TIMEOUT.toNanos();
+            HttpRequest request = get("/api/books");
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (HTTP.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    }
+                } catch (ConnectException e) {
+                    // ainda subindo
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("no successful GET /api/books within " + TIMEOUT + ", see " + log);
+        }
+
+        void stop() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+
+        private static int freePort() throws IOException {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                return socket.getLocalPort();
+            }
+        }
+    }
+
+    record Result(String mode, long min, long median, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s time to first GET /api/books: min %5d ms  median %5d ms  max %5d ms",
+                    mode, min, median, max);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.treinamento.springboot.libraryapi.benchmark;
+
+import jakarta.servlet.Filter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares request throughput with Tomcat on platform threads (200 by default) and on virtual threads.
+ * Every request sleeps {@code load.latency} ms inside a filter to stand in for a remote database round trip,
+ * so the platform mode is capped at roughly 200 / latency requests per second.
+ */
+public class VirtualThreadLoadTest {
+
+    private static final int CATALOG_SIZE = 1_000;
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1_000);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 10));
+    private static final long LATENCY_MILLIS = Long.getLong("load.latency", 100);
+
+    public static void main(String[] args) throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        System.out.println(platform);
+        System.out.println(virtual);
+        System.out.printf("speedup: %.2fx%n", virtual.throughput() / platform.throughput());
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        System.setProperty("library.threads.virtual.enabled", String.valueOf(virtualThreads));
+        ConfigurableApplicationContext context = LibraryContext.startServer(SimulatedLatency.class);
+        try {
+            LibraryContext.seedBooks(context, CATALOG_SIZE);
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/books/";
+            drive(base, Duration.ofSeconds(2));
+            return drive(base, DURATION).named(virtualThreads ? "virtual" : "platform");
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(String base, Duration duration) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newHttpClient();
+            for (int c = 0; c < CONCURRENCY; c++) {
+                long[] samples = new long[1 << 14];
+                latencies.add(samples);
+                clients.submit(() -> {
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        long id = ThreadLocalRandom.current().nextLong(1, CATALOG_SIZE + 1);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(base + id)).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                completed.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        samples[n++ & (samples.length - 1)] = System.nanoTime() - start;
+                    }
+                    return null;
+                });
+            }
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(l -> l > 0).sorted().toArray();
+        long p99 = all.length == 0 ? 0 : all[(int) (all.length * 0.99)];
+        return new Result("warmup", completed.get() / (double) duration.toSeconds(), failed.get(), p99 / 1_000_000.0);
+    }
+
+    record Result(String mode, double throughput, long failed, double p99Millis) {
+
+        Result named(String name) {
+            return new Result(name, throughput, failed, p99Millis);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %10.0f req/s  p99 %8.1f ms  failed %d", mode, throughput, p99Millis, failed);
+        }
+    }
+
+    @Configuration
+    static class SimulatedLatency {
+
+        @Bean
+        FilterRegistrationBean<Filter> simulatedLatencyFilter() {
+            Filter filter = (request, response, chain) -> {
+                try {
+                    Thread.sleep(LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                chain.doFilter(request, response);
+            };
+            return new FilterRegistrationBean<>(filter);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AotSwitchesTest {
+
+    @Test
+    void deveriaAceitarPropriedadesIguaisAsDoBuild() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("scheduling", new RootBeanDefinition(SchedulingConfig.Enabled.class));
+
+        assertThatCode(() -> AotSwitches.verify(beanFactory, new MockEnvironment()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void deveriaFalharQuandoPropriedadeCongeladaNoBuildMudar() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("scheduling", new RootBeanDefinition(SchedulingConfig.Enabled.class));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("library.threads.virtual.enabled", "true")
+                .withProperty("library.scheduling.enabled", "false");
+
+        assertThatThrownBy(() -> AotSwitches.verify(beanFactory, environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("library.threads.virtual.enabled (desligado no build)")
+                .hasMessageContaining("library.scheduling.enabled (ligado no build)");
+    }
+}
@@ -0,0 +1,57 @@
+package com.treinamento.springboot.libraryapi.config;
+
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.BookService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.when;
+
+class MetricsAspectTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deveriaMedirChamadasDoServicoPorMetodoEExcecao() {
+        BookService target = Mockito.mock(BookService.class);
+        when(target.getById(1L)).thenReturn(Optional.of(Book.builder().id(1L).build()));
+        when(target.save(Mockito.any(Book.class))).thenThrow(new BusinessException("Isbn já cadastrado"));
+        BookService bookService = proxy(target);
+
+        bookService.getById(1L);
+        bookService.getById(1L);
+        catchThrowable(() -> bookService.save(Book.builder().build()));
+
+        assertThat(registry.get(MetricsAspect.SERVICE_TIMER).tag("method", "getById").tag("exception", "none").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get(MetricsAspect.SERVICE_TIMER).tag("method", "save").tag("exception", "BusinessException").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void naoDeveriaMedirChamadasDosMappers() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(Mockito.mock(BookMapper.class));
+        factory.addInterface(BookMapper.class);
+        factory.addAspect(new MetricsAspect(registry));
+        BookMapper bookMapper = factory.getProxy();
+
+        bookMapper.toDto(Book.builder().id(1L).build());
+
+        assertThat(registry.getMeters()).isEmpty();
+    }
+
+    private BookService proxy(BookService target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(BookService.class);
+        factory.addAspect(new MetricsAspect(registry));
+        return factory.getProxy();
+    }
+}
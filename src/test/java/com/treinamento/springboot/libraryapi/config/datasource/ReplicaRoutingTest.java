@@ -0,0 +1,133 @@
+package com.treinamento.springboot.libraryapi.config.datasource;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.service.BookService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primário e réplica em duas bases H2 em memória independentes, sem replicação entre elas: o que cada leitura
+ * enxerga mostra para onde ela foi roteada.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "library.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema.sql'",
+        "library.datasource.replica.read-your-writes=1m"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    @Autowired
+    BookService bookService;
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primary;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replica;
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        new JdbcTemplate(primary).update("delete from book");
+        new JdbcTemplate(replica).update("delete from book");
+    }
+
+    @Test
+    void deveriaLerDaReplicaEmTransacaoSomenteLeitura() {
+        // cenario
+        new JdbcTemplate(replica).update(
+                "insert into book (id, title, author, isbn, version) values (1000, 'Replica', 'Fulano', 'R1', 0)");
+
+        // execucao
+        var pagina = bookService.find(Book.builder().build(), PageRequest.of(0, 10));
+
+        // verificacao
+        assertThat(pagina.getContent()).extracting(Book::getIsbn).containsExactly("R1");
+    }
+
+    @Test
+    void deveriaEscreverNoPrimarioELerAPropriaEscritaEmSeguida() {
+        // execucao
+        bookService.save(Book.builder().title("Primario").author("Fulano").isbn("P1").build());
+
+        // verificacao
+        assertThat(count(primary)).isEqualTo(1);
+        assertThat(count(replica)).isZero();
+        assertThat(bookService.find(Book.builder().build(), PageRequest.of(0, 10)).getContent())
+                .extracting(Book::getIsbn).containsExactly("P1");
+
+        ReadYourWrites.clear();
+        assertThat(bookService.find(Book.builder().build(), PageRequest.of(0, 10)).getContent()).isEmpty();
+    }
+
+    @Test
+    void deveriaManterNoPrimarioAsRequisicoesDeQuemAcabouDeEscrever() throws Exception {
+        // cenario
+        Cookie pin = mockMvc.perform(MockMvcRequestBuilders.post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Primario\",\"author\":\"Fulano\",\"isbn\":\"P2\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReplicaRoutingDataSource.COOKIE))
+                .andReturn().getResponse().getCookie(ReplicaRoutingDataSource.COOKIE);
+
+        // execucao / verificacao
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(0)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/books").cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("content", hasSize(1)))
+                .andExpect(jsonPath("content[0].isbn").value("P2"));
+    }
+
+    @Test
+    void naoDeveriaAceitarPrazoDoCookieAlemDaJanela() throws Exception {
+        // cenario
+        ReadYourWrites.clear();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReplicaRoutingDataSource.COOKIE, String.valueOf(Long.MAX_VALUE)));
+        AtomicBoolean pinned = new AtomicBoolean(true);
+
+        // execucao
+        new ReadYourWritesFilter(Duration.ZERO).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+
+        // verificacao
+        assertThat(pinned).isFalse();
+    }
+
+    private static int count(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from book", Integer.class);
+    }
+}
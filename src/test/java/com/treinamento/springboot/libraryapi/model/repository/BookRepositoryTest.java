@@ -1,16 +1,30 @@
 package com.treinamento.springboot.libraryapi.model.repository;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookIsbnView;
 import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookSpecifications;
+import com.treinamento.springboot.libraryapi.service.io.BookCursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -84,6 +98,143 @@ class BookRepositoryTest {
         assertThat(bookDeleted).isNull();
     }
 
+    @Test
+    void deveriaObterLivroPorIsbn() {
+        Book entity = creatNewBook("4321");
+        testEntityManager.persist(entity);
+
+        Optional<Book> foundBook = bookRepository.findByIsbn("4321");
+
+        assertThat(foundBook).isPresent();
+        assertThat(foundBook.get().getId()).isEqualTo(entity.getId());
+    }
+
+    @Test
+    void deveriaListarIndiceDeIsbn() {
+        Book entity = creatNewBook("5678");
+        testEntityManager.persist(entity);
+
+        List<BookIsbnView> index;
+        try (Stream<BookIsbnView> entries = bookRepository.streamIsbnIndex()) {
+            index = entries.toList();
+        }
+
+        assertThat(index).hasSize(1);
+        assertThat(index.get(0).getId()).isEqualTo(entity.getId());
+        assertThat(index.get(0).getIsbn()).isEqualTo("5678");
+    }
+
+    @Test
+    void deveriaPaginarPorChaveSemOffset() {
+        Book primeiro = testEntityManager.persist(Book.builder().title("A").author("Fulano").isbn("1").build());
+        Book segundo = testEntityManager.persist(Book.builder().title("B").author("Fulano").isbn("2").build());
+        Book terceiro = testEntityManager.persist(Book.builder().title("B").author("Fulano").isbn("3").build());
+        testEntityManager.persist(Book.builder().title("C").author("Ciclano").isbn("4").build());
+        Example<Book> example = Example.of(Book.builder().author("fulano").build(), ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        Sort.Order order = Sort.Order.asc("title");
+
+        List<Book> primeiraPagina = bookRepository.findAfter(example, order, null, 2);
+        List<Book> segundaPagina = bookRepository.findAfter(example, order, BookCursor.after(segundo, order), 2);
+
+        assertThat(primeiraPagina).containsExactly(primeiro, segundo);
+        assertThat(segundaPagina).containsExactly(terceiro);
+    }
+
+    @Test
+    void deveriaPaginarPorChaveComTitulosNulosNoFim() {
+        Book a = testEntityManager.persist(Book.builder().title("A").author("Fulano").isbn("1").build());
+        Book semTitulo1 = testEntityManager.persist(Book.builder().author("Fulano").isbn("2").build());
+        Book b = testEntityManager.persist(Book.builder().title("B").author("Fulano").isbn("3").build());
+        Book semTitulo2 = testEntityManager.persist(Book.builder().author("Fulano").isbn("4").build());
+        Example<Book> example = Example.of(Book.builder().author("fulano").build(), ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+
+        for (Sort.Order order : List.of(Sort.Order.asc("title"), Sort.Order.desc("title"))) {
+            List<Book> todos = new ArrayList<>();
+            BookCursor cursor = null;
+            List<Book> pagina;
+            do {
+                pagina = bookRepository.findAfter(example, order, cursor, 1);
+                todos.addAll(pagina);
+                cursor = pagina.isEmpty() ? null
+                        : BookCursor.decode(BookCursor.after(pagina.get(0), order).encode(), order);
+            } while (!pagina.isEmpty());
+
+            assertThat(todos).as("ordem %s", order).containsExactlyElementsOf(order.isAscending()
+                    ? List.of(a, b, semTitulo1, semTitulo2)
+                    : List.of(b, a, semTitulo2, semTitulo1));
+        }
+    }
+
+    @Test
+    void deveriaProjetarBookEmDtoPorId() {
+        Book book = testEntityManager.persistAndFlush(creatNewBook("123"));
+        testEntityManager.clear();
+
+        Optional<BookDTO> view = bookRepository.findViewById(book.getId());
+
+        assertThat(view).contains(BookDTO.builder().id(book.getId()).title("Aventuras").author("Fulano").isbn("123").version(0L).build());
+        assertThat(testEntityManager.getEntityManager().contains(book)).isFalse();
+    }
+
+    @Test
+    void deveriaPaginarViewsComFiltro() {
+        testEntityManager.persist(Book.builder().title("A").author("Fulano").isbn("1").build());
+        testEntityManager.persist(Book.builder().title("B").author("Fulano").isbn("2").build());
+        testEntityManager.persist(Book.builder().title("C").author("Fulano").isbn("3").build());
+        testEntityManager.persist(Book.builder().title("D").author("Ciclano").isbn("4").build());
+        Example<Book> example = Example.of(Book.builder().author("fulano").build(), ExampleMatcher.matching()
+                .withIgnoreCase()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+
+        Page<BookDTO> pagina = bookRepository.findViews(BookSpecifications.matching(example),
+                PageRequest.of(1, 2, Sort.by("title")));
+
+        assertThat(pagina.getTotalElements()).isEqualTo(3);
+        assertThat(pagina.getContent()).extracting(BookDTO::getIsbn).containsExactly("3");
+    }
+
+    @Test
+    void deveriaFatiarViewsEContarSomenteAteOLimite() {
+        testEntityManager.persist(Book.builder().title("A").author("Fulano").isbn("1").build());
+        testEntityManager.persist(Book.builder().title("B").author("Fulano").isbn("2").build());
+        testEntityManager.persist(Book.builder().title("C").author("Fulano").isbn("3").build());
+        testEntityManager.persist(Book.builder().title("D").author("Ciclano").isbn("4").build());
+        Specification<Book> fulano = BookSpecifications.matching(Example.of(Book.builder().author("fulano").build(),
+                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)));
+
+        Slice<BookDTO> primeira = bookRepository.findViewSlice(fulano, PageRequest.of(0, 2, Sort.by("title")));
+        Slice<BookDTO> ultima = bookRepository.findViewSlice(fulano, PageRequest.of(1, 2, Sort.by("title")));
+
+        assertThat(primeira.getContent()).extracting(BookDTO::getIsbn).containsExactly("1", "2");
+        assertThat(primeira.hasNext()).isTrue();
+        assertThat(ultima.getContent()).extracting(BookDTO::getIsbn).containsExactly("3");
+        assertThat(ultima.hasNext()).isFalse();
+        assertThat(bookRepository.countMatching(fulano)).isEqualTo(3);
+        assertThat(bookRepository.countUpTo(fulano, 2)).isEqualTo(2);
+        assertThat(bookRepository.countUpTo(fulano, 10)).isEqualTo(3);
+    }
+
+    @Test
+    void deveriaAtualizarTituloEAutorSomenteNaVersaoEsperada() {
+        // cenario
+        Book book = testEntityManager.persistFlushFind(creatNewBook("123"));
+        testEntityManager.clear();
+
+        // execucao
+        int atualizados = bookRepository.updateTitleAndAuthor(book.getId(), 0L, "Novo titulo", "Novo autor");
+        int desatualizados = bookRepository.updateTitleAndAuthor(book.getId(), 0L, "Perdido", "Perdido");
+
+        // verificacao
+        assertThat(atualizados).isEqualTo(1);
+        assertThat(desatualizados).isZero();
+        assertThat(bookRepository.findViewById(book.getId())).contains(BookDTO.builder().id(book.getId())
+                .title("Novo titulo").author("Novo autor").isbn("123").version(1L).build());
+    }
+
     private static Book creatNewBook(String isbn) {
         return Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build();
     }
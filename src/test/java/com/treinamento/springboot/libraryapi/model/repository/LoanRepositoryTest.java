@@ -0,0 +1,129 @@
+package com.treinamento.springboot.libraryapi.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.service.io.LoanCursor;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class LoanRepositoryTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Test
+    void deveriaVerificarSeLivroEstaEmprestado() {
+        Book book = createBook("123");
+        testEntityManager.persist(createLoan(book, false));
+
+        boolean emprestado = loanRepository.existsByBookAndReturnedFalse(book);
+
+        assertThat(emprestado).isTrue();
+    }
+
+    @Test
+    void naoDeveriaConsiderarEmprestimoDevolvido() {
+        Book book = createBook("123");
+        testEntityManager.persist(createLoan(book, true));
+
+        boolean emprestado = loanRepository.existsByBookAndReturnedFalse(book);
+
+        assertThat(emprestado).isFalse();
+    }
+
+    @Test
+    void naoDeveriaPermitirDoisEmprestimosAtivosDoMesmoLivro() {
+        Book book = createBook("123");
+        testEntityManager.persistAndFlush(createLoan(book, false));
+
+        assertThatThrownBy(() -> testEntityManager.persistAndFlush(createLoan(book, false)))
+                .isInstanceOf(PersistenceException.class)
+                .hasCauseInstanceOf(ConstraintViolationException.class);
+    }
+
+    @Test
+    void deveriaPermitirNovoEmprestimoAposDevolucao() {
+        Book book = createBook("123");
+        Loan devolvido = testEntityManager.persistAndFlush(createLoan(book, false));
+        devolvido.setReturned(true);
+        testEntityManager.flush();
+
+        Loan novo = testEntityManager.persistAndFlush(createLoan(book, false));
+
+        assertThat(novo.getId()).isNotNull();
+        assertThat(novo.getActiveBookId()).isEqualTo(book.getId());
+        assertThat(devolvido.getActiveBookId()).isNull();
+    }
+
+    @Test
+    void deveriaListarEmprestimosComLivroCarregadoDoMaisRecenteParaOMaisAntigo() {
+        // cenario
+        Book book = createBook("123");
+        Book outro = createBook("456");
+        Loan antigo = testEntityManager.persist(createLoan(book, true, "Fulano", LocalDate.now().minusDays(2)));
+        Loan recente = testEntityManager.persist(createLoan(outro, false, "Fulano", LocalDate.now()));
+        testEntityManager.persist(createLoan(book, false, "Ciclano", LocalDate.now().minusDays(1)));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        // execucao
+        List<Loan> primeira = loanRepository.findAfter(null, "Fulano", null, null, 1);
+        List<Loan> segunda = loanRepository.findAfter(null, "Fulano", null, LoanCursor.after(primeira.get(0)), 1);
+
+        // verificacao
+        PersistenceUnitUtil util = testEntityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertThat(primeira).extracting(Loan::getId).containsExactly(recente.getId());
+        assertThat(util.isLoaded(primeira.get(0), "book")).isTrue();
+        assertThat(primeira.get(0).getBook().getIsbn()).isEqualTo("456");
+        assertThat(segunda).extracting(Loan::getId).containsExactly(antigo.getId());
+    }
+
+    @Test
+    void deveriaFiltrarEmprestimosPorLivroEDevolucao() {
+        // cenario
+        Book book = createBook("123");
+        Loan devolvido = testEntityManager.persist(createLoan(book, true, "Fulano", LocalDate.now().minusDays(3)));
+        Loan ativo = testEntityManager.persist(createLoan(book, false, "Ciclano", LocalDate.now()));
+        testEntityManager.persist(createLoan(createBook("456"), false, "Fulano", LocalDate.now()));
+
+        // execucao
+        List<Loan> doLivro = loanRepository.findAfter(book.getId(), null, null, null, 10);
+        List<Loan> devolvidos = loanRepository.findAfter(book.getId(), null, true, null, 10);
+
+        // verificacao
+        assertThat(doLivro).extracting(Loan::getId).containsExactly(ativo.getId(), devolvido.getId());
+        assertThat(devolvidos).extracting(Loan::getId).containsExactly(devolvido.getId());
+    }
+
+    private Book createBook(String isbn) {
+        return testEntityManager.persist(Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build());
+    }
+
+    private static Loan createLoan(Book book, boolean returned) {
+        return createLoan(book, returned, "Fulano", LocalDate.now());
+    }
+
+    private static Loan createLoan(Book book, boolean returned, String customer, LocalDate loanDate) {
+        return Loan.builder().customer(customer).book(book).loanDate(loanDate).returned(returned).build();
+    }
+}
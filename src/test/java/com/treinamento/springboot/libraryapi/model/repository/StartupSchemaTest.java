@@ -0,0 +1,61 @@
+package com.treinamento.springboot.libraryapi.model.repository;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * O perfil {@code startup} não gera o schema: ele vem de {@code db/schema.sql}. Com {@code ddl-auto=validate}
+ * o contexto nem sobe se o script divergir das entidades.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/schema.sql"
+})
+class StartupSchemaTest {
+
+    @Autowired
+    BookRepository bookRepository;
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Test
+    void deveriaSalvarLivroEEmprestimoNoSchemaDoScript() {
+        // cenario
+        Book book = bookRepository.saveAndFlush(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+
+        // execucao
+        Loan loan = loanRepository.saveAndFlush(Loan.builder().book(book).customer("Fulano")
+                .loanDate(LocalDate.now()).returned(false).overdue(false).build());
+
+        // verificacao
+        assertThat(book.getVersion()).isZero();
+        assertThat(loan.getActiveBookId()).isEqualTo(book.getId());
+    }
+
+    @Test
+    void deveriaManterUnicidadeDoIsbnNoSchemaDoScript() {
+        // cenario
+        bookRepository.saveAndFlush(Book.builder().isbn("123").title("Titulo").author("Autor").build());
+
+        // execucao / verificacao
+        assertThatThrownBy(() -> bookRepository.saveAndFlush(Book.builder().isbn("123").title("Outro").author("Autor").build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+}
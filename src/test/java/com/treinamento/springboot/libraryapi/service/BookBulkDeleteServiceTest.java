@@ -0,0 +1,122 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteDTO;
+import com.treinamento.springboot.libraryapi.api.dto.BookBulkDeleteResultDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.impl.BookBulkDeleteServiceImpl;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookBulkDeleteServiceTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+    @Autowired
+    BookRepository repository;
+    @Autowired
+    LoanRepository loanRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    BookBulkDeleteService bookBulkDeleteService;
+    IsbnDirectory isbnDirectory;
+    BookVersions bookVersions;
+
+    @BeforeEach
+    void setUp() {
+        isbnDirectory = new IsbnDirectory(repository, 1000, 0.01);
+        bookVersions = new BookVersions(repository);
+        bookBulkDeleteService = new BookBulkDeleteServiceImpl(repository, loanRepository, isbnDirectory,
+                new BookSearchIndex(repository, 1000), bookVersions, new BookCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+                new BookCountCache(1000, Duration.ofSeconds(30), 3), transactionManager, 2);
+    }
+
+    @Test
+    void deveriaRemoverPorFiltroEmBlocosMantendoLivrosComEmprestimos() {
+        // cenario
+        Book emprestado = persist("Editora X", "001");
+        Book devolvido = persist("Editora X", "002");
+        persist("Editora X", "003");
+        persist("Editora X", "004");
+        persist("Editora X", "005");
+        Book outro = persist("Outra", "006");
+        loan(emprestado, false);
+        loan(devolvido, true);
+        isbnDirectory.load();
+        bookVersions.load();
+
+        // execucao
+        BookBulkDeleteResultDTO resultado = bookBulkDeleteService.deleteBooks(BookBulkDeleteDTO.builder().author("editora x").build());
+
+        // verificacao
+        assertThat(resultado.getMatched()).isEqualTo(5);
+        assertThat(resultado.getDeleted()).isEqualTo(3);
+        assertThat(resultado.getSkippedWithLoans()).isEqualTo(2);
+        assertThat(repository.findAll()).extracting(Book::getIsbn).containsExactlyInAnyOrder("001", "002", "006");
+        assertThat(isbnDirectory.idOf("003")).isEmpty();
+        assertThat(isbnDirectory.idOf("001")).contains(emprestado.getId());
+        assertThat(isbnDirectory.idOf("006")).contains(outro.getId());
+    }
+
+    @Test
+    void deveriaRemoverPorIdsIgnorandoInexistentes() {
+        // cenario
+        Book primeiro = persist("Editora X", "001");
+        Book segundo = persist("Editora X", "002");
+        Book terceiro = persist("Editora X", "003");
+        bookVersions.load();
+
+        // execucao
+        BookBulkDeleteResultDTO resultado = bookBulkDeleteService.deleteBooks(BookBulkDeleteDTO.builder()
+                .ids(List.of(primeiro.getId(), terceiro.getId(), primeiro.getId(), 999_999L)).build());
+
+        // verificacao
+        assertThat(resultado.getMatched()).isEqualTo(2);
+        assertThat(resultado.getDeleted()).isEqualTo(2);
+        assertThat(resultado.getSkippedWithLoans()).isZero();
+        assertThat(repository.findAll()).extracting(Book::getId).containsExactly(segundo.getId());
+        assertThat(bookVersions.versionOf(primeiro.getId())).isEmpty();
+    }
+
+    @Test
+    void deveriaRecusarExclusaoEmLoteSemIdsNemFiltro() {
+        Throwable throwable = catchThrowable(() -> bookBulkDeleteService.deleteBooks(BookBulkDeleteDTO.builder().title(" ").build()));
+
+        assertThat(throwable).isInstanceOf(BusinessException.class);
+    }
+
+    private Book persist(String author, String isbn) {
+        return testEntityManager.persistAndFlush(Book.builder().title("Livro " + isbn).author(author).isbn(isbn).build());
+    }
+
+    private void loan(Book book, boolean returned) {
+        testEntityManager.persistAndFlush(Loan.builder().book(book).customer("Fulano").loanDate(LocalDate.now())
+                .returned(returned).overdue(false).build());
+    }
+}
@@ -0,0 +1,74 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.treinamento.springboot.libraryapi.api.mapper.BookMapper;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.service.impl.BookExportServiceImpl;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookExportServiceTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+    @Autowired
+    BookRepository repository;
+
+    BookExportService bookExportService;
+
+    @BeforeEach
+    void setUp() {
+        bookExportService = new BookExportServiceImpl(repository, testEntityManager.getEntityManager(),
+                Mappers.getMapper(BookMapper.class), new ObjectMapper());
+        testEntityManager.persist(Book.builder().title("Aventuras, volume 1").author("Fulano").isbn("001").build());
+        testEntityManager.persist(Book.builder().title("O \"livro\"").author("Ciclano").isbn("002").build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void deveriaExportarOCatalogoEmNdjson() {
+        // execucao
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long exportados = bookExportService.exportBooks(output, BookFormat.NDJSON);
+
+        // verificacao
+        assertThat(exportados).isEqualTo(2);
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).startsWith("{").endsWith("}"))
+                .anySatisfy(line -> assertThat(line).contains("\"isbn\":\"002\""));
+        assertThat(testEntityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
+    @Test
+    void deveriaExportarOCatalogoEmCsv() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookExportService.exportBooks(output, BookFormat.CSV);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("""
+                title,author,isbn
+                "Aventuras, volume 1",Fulano,001
+                "O \"\"livro\"\"",Ciclano,002
+                """);
+    }
+}
@@ -0,0 +1,129 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.treinamento.springboot.libraryapi.api.dto.BookImportResultDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.impl.BookImportServiceImpl;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import com.treinamento.springboot.libraryapi.service.io.BookFormat;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookImportServiceTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+    @Autowired
+    BookRepository repository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    BookImportService bookImportService;
+    IsbnDirectory isbnDirectory;
+
+    @BeforeEach
+    void setUp() {
+        isbnDirectory = new IsbnDirectory(repository, 1000, 0.01);
+        bookImportService = new BookImportServiceImpl(repository, isbnDirectory,
+                new BookSearchIndex(repository, 1000), new BookVersions(repository), new BookCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+                new BookCountCache(1000, Duration.ofSeconds(30), 3), transactionManager,
+                testEntityManager.getEntityManager(), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 10);
+    }
+
+    @Test
+    void deveriaImportarLivrosEmNdjson() {
+        // cenario
+        testEntityManager.persist(Book.builder().title("Existente").author("Fulano").isbn("001").build());
+        String ndjson = """
+                {"title":"Duplicado","author":"Fulano","isbn":"001"}
+                {"title":"Novo","author":"Ciclano","isbn":"002"}
+
+                {"title":"Sem isbn","author":"Ciclano"}
+                nao eh json
+                {"title":"Repetido","author":"Beltrano","isbn":"002"}
+                {"title":"Outro","author":"Beltrano","isbn":"003"}
+                """;
+
+        // execucao
+        BookImportResultDTO resultado = bookImportService.importBooks(stream(ndjson), BookFormat.NDJSON);
+
+        // verificacao
+        assertThat(resultado.getProcessed()).isEqualTo(6);
+        assertThat(resultado.getImported()).isEqualTo(2);
+        assertThat(resultado.getRejected()).isEqualTo(4);
+        assertThat(resultado.getRejects()).extracting("line").containsExactlyInAnyOrder(1L, 4L, 5L, 6L);
+        assertThat(repository.findByIsbn("002")).isPresent();
+        assertThat(repository.findByIsbn("003")).isPresent();
+        assertThat(isbnDirectory.idOf("003")).isPresent();
+    }
+
+    @Test
+    void deveriaImportarLivrosEmCsv() {
+        String csv = """
+                isbn,title,author
+                010,"Aventuras, volume 1",Fulano
+                011,"O \"\"livro\"\"",Ciclano
+                012,,Beltrano
+                """;
+
+        BookImportResultDTO resultado = bookImportService.importBooks(stream(csv), BookFormat.CSV);
+
+        assertThat(resultado.getProcessed()).isEqualTo(3);
+        assertThat(resultado.getImported()).isEqualTo(2);
+        assertThat(resultado.getRejects()).singleElement().satisfies(reject -> {
+            assertThat(reject.getLine()).isEqualTo(4L);
+            assertThat(reject.getIsbn()).isEqualTo("012");
+        });
+        assertThat(repository.findByIsbn("010")).get().extracting(Book::getTitle).isEqualTo("Aventuras, volume 1");
+        assertThat(repository.findByIsbn("011")).get().extracting(Book::getTitle).isEqualTo("O \"livro\"");
+    }
+
+    @Test
+    void deveriaReimportarCsvComQuebraDeLinhaEntreAspas() {
+        // cenario
+        String csv = """
+                title,author,isbn
+                "Primeira linha
+                segunda linha",Fulano,020
+                "Sem fim,Ciclano,021
+                """;
+
+        // execucao
+        BookImportResultDTO resultado = bookImportService.importBooks(stream(csv), BookFormat.CSV);
+
+        // verificacao
+        assertThat(resultado.getProcessed()).isEqualTo(2);
+        assertThat(resultado.getImported()).isEqualTo(1);
+        assertThat(resultado.getRejects()).singleElement().extracting("line").isEqualTo(4L);
+        assertThat(repository.findByIsbn("020")).get().extracting(Book::getTitle)
+                .isEqualTo("Primeira linha\nsegunda linha");
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
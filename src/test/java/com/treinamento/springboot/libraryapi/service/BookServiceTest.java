@@ -1,9 +1,22 @@
 package com.treinamento.springboot.libraryapi.service;
 
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.dto.CursorSliceDTO;
 import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookIsbnView;
 import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
 import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
 import com.treinamento.springboot.libraryapi.service.impl.BookServiceImpl;
+import com.treinamento.springboot.libraryapi.service.index.BookSearchIndex;
+import com.treinamento.springboot.libraryapi.service.index.BookVersions;
+import com.treinamento.springboot.libraryapi.service.index.IsbnDirectory;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import com.treinamento.springboot.libraryapi.service.io.BookCursor;
+import com.treinamento.springboot.libraryapi.service.io.BookPage;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,16 +24,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -33,12 +54,20 @@ import static org.mockito.Mockito.when;
 class BookServiceTest {
 
     BookService bookService;
+    IsbnDirectory isbnDirectory;
+    BookSearchIndex searchIndex;
     @MockBean
     BookRepository repository;
+    @MockBean
+    LoanRepository loanRepository;
 
     @BeforeEach
     void setUp() {
-        this.bookService = new BookServiceImpl(repository);
+        this.isbnDirectory = new IsbnDirectory(repository, 1000, 0.01);
+        this.searchIndex = new BookSearchIndex(repository, 1000);
+        this.bookService = new BookServiceImpl(repository, isbnDirectory, searchIndex, new BookVersions(repository),
+                new BookCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+                new LoanedBooks(loanRepository), new BookCountCache(1000, Duration.ofSeconds(30), 3), 1000, 1000);
     }
 
     @Test
@@ -64,6 +93,33 @@ class BookServiceTest {
         assertThat(bookEsperado.getIsbn()).isEqualTo("12345");
     }
 
+    @Test
+    void deveriaTraduzirViolacaoDeIsbnDoBanco() {
+        // cenario
+        Book book = createValidBook();
+        when(repository.save(book)).thenThrow(new DataIntegrityViolationException("UK_BOOK_ISBN_INDEX_1 ON PUBLIC.BOOK(ISBN)"));
+
+        // execucao
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
+
+        // verificacao
+        assertThat(throwable).isInstanceOf(BusinessException.class).hasMessage("Isbn já cadastrado");
+    }
+
+    @Test
+    void naoDeveriaTraduzirOutraViolacaoDoBancoComoIsbnCadastrado() {
+        // cenario
+        Book book = createValidBook();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("Value too long for column \"TITLE\"");
+        when(repository.save(book)).thenThrow(violation);
+
+        // execucao
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.save(book));
+
+        // verificacao
+        assertThat(throwable).isSameAs(violation);
+    }
+
     @Test
     void deveriaLancarErroIsbCadastrado() {
         // cenario
@@ -104,6 +160,45 @@ class BookServiceTest {
         assertThat(book.isPresent()).isFalse();
     }
 
+    @Test
+    void deveriaObterBookPorIdDoCacheNaSegundaConsulta() {
+        Book book = createValidBook();
+        book.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+
+        bookService.getById(1L);
+        Optional<Book> foundBook = bookService.getById(1L);
+
+        assertThat(foundBook).contains(book);
+        verify(repository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void deveriaGuardarAusenciaDoBookNoCache() {
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        bookService.getById(1L);
+        Optional<Book> foundBook = bookService.getById(1L);
+
+        assertThat(foundBook).isEmpty();
+        verify(repository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void deveriaAtualizarCacheAoAtualizarBook() {
+        Book book = createValidBook();
+        book.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        bookService.getById(1L);
+
+        Book alterado = book.toBuilder().title("Novo titulo").build();
+        when(repository.save(alterado)).thenReturn(alterado);
+        bookService.update(alterado);
+
+        assertThat(bookService.getById(1L)).get().extracting(Book::getTitle).isEqualTo("Novo titulo");
+        verify(repository, Mockito.times(1)).findById(1L);
+    }
+
     @Test
     void deveriaDeletarBook() {
         Book book = Book.builder().id(1L).build();
@@ -154,6 +249,49 @@ class BookServiceTest {
         Mockito.verify(repository, Mockito.never()).save(book);
     }
 
+    @Test
+    void deveriaAtualizarBookComUmUnicoUpdateCondicional() {
+        // cenario
+        Book book = createValidBook();
+        book.setId(1L);
+        book.setVersion(3L);
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        bookService.getById(1L);
+        when(repository.updateTitleAndAuthor(1L, 3L, "Novo titulo", "Novo autor")).thenReturn(1);
+
+        // execucao
+        Optional<Book> atualizado = bookService.update(1L, 3L, "Novo titulo", "Novo autor");
+
+        // verificacao
+        assertThat(atualizado).get().extracting(Book::getTitle, Book::getAuthor, Book::getIsbn, Book::getVersion)
+                .containsExactly("Novo titulo", "Novo autor", book.getIsbn(), 4L);
+        assertThat(bookService.getVersion(1L)).contains(4L);
+        assertThat(bookService.getById(1L)).get().extracting(Book::getTitle).isEqualTo("Novo titulo");
+        verify(repository, Mockito.never()).save(Mockito.any(Book.class));
+        verify(repository, Mockito.never()).findViewById(Mockito.anyLong());
+    }
+
+    @Test
+    void deveriaLancarConflitoAoAtualizarBookComVersaoDesatualizada() {
+        // cenario
+        when(repository.updateTitleAndAuthor(1L, 2L, "Novo titulo", "Novo autor")).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(true);
+
+        // execucao
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.update(1L, 2L, "Novo titulo", "Novo autor"));
+
+        // verificacao
+        assertThat(throwable).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void deveriaRetornarVazioAoAtualizarBookInexistenteComVersao() {
+        when(repository.updateTitleAndAuthor(1L, 2L, "Novo titulo", "Novo autor")).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(false);
+
+        assertThat(bookService.update(1L, 2L, "Novo titulo", "Novo autor")).isEmpty();
+    }
+
     @Test
     void deveriaBuscarBook() {
         Book book = createValidBook();
@@ -170,6 +308,231 @@ class BookServiceTest {
         assertThat(resultado.getPageable().getPageSize()).isEqualTo(10);
     }
 
+    @Test
+    void deveriaRetornarPaginaVaziaSemConsultarBancoQuandoIndiceNaoEncontrarCandidatos() {
+        when(repository.streamSearchIndex()).thenReturn(Stream.empty());
+        searchIndex.load();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+
+        Page<Book> resultado = bookService.find(Book.builder().title("aventuras").build(), pageRequest);
+
+        assertThat(resultado.getTotalElements()).isZero();
+        verify(repository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(Pageable.class));
+        verify(repository, Mockito.never()).findAll(Mockito.any(Specification.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void deveriaContarSoOsCandidatosDoIndiceNaEstimativa() {
+        // cenario
+        when(repository.streamSearchIndex()).thenReturn(Stream.empty());
+        searchIndex.load();
+        searchIndex.register(Book.builder().id(1L).title("As aventuras").build());
+        searchIndex.register(Book.builder().id(2L).title("Mais aventuras").build());
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        when(repository.findViewContent(Mockito.any(Specification.class), Mockito.eq(pageRequest)))
+                .thenReturn(List.of(BookDTO.builder().id(1L).title("As aventuras").build()));
+        when(repository.countMatching(Mockito.any(Specification.class))).thenReturn(2L);
+
+        // execucao
+        BookPage resultado = bookService.findViews(Book.builder().title("aventuras").build(), null, pageRequest, BookTotal.ESTIMATE);
+
+        // verificacao
+        assertThat(resultado.total()).isEqualTo(BookTotal.EXACT);
+        assertThat(((Page<BookDTO>) resultado.books()).getTotalElements()).isEqualTo(2);
+        verify(repository, Mockito.never()).countUpTo(Mockito.any(Specification.class), Mockito.anyInt());
+    }
+
+    @Test
+    void deveriaObterViewDoBookSemCarregarEntidade() {
+        BookDTO view = BookDTO.builder().id(1L).title("As aventuras").author("Fulano").isbn("12345").build();
+        when(repository.findViewById(1L)).thenReturn(Optional.of(view));
+
+        Optional<BookDTO> primeira = bookService.getView(1L);
+        Optional<BookDTO> segunda = bookService.getView(1L);
+
+        assertThat(primeira).get().isSameAs(view);
+        assertThat(segunda).get().isSameAs(view);
+        verify(repository, Mockito.times(1)).findViewById(1L);
+        verify(repository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void deveriaBuscarViewsDosBooksSemContarQuandoAPaginaRevelaOTotal() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<BookDTO> content = List.of(BookDTO.builder().id(1L).title("As aventuras").build());
+        when(repository.findViewContent(Mockito.any(Specification.class), Mockito.eq(pageRequest))).thenReturn(content);
+
+        BookPage resultado = bookService.findViews(Book.builder().title("aventuras").build(), null, pageRequest, BookTotal.EXACT);
+
+        assertThat(resultado.total()).isEqualTo(BookTotal.EXACT);
+        assertThat(resultado.books().getContent()).isEqualTo(content);
+        assertThat(((Page<BookDTO>) resultado.books()).getTotalElements()).isEqualTo(1);
+        verify(repository, Mockito.never()).countMatching(Mockito.any(Specification.class));
+        verify(repository, Mockito.never()).findAll(Mockito.any(Example.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void deveriaReaproveitarTotalExatoAteAProximaEscrita() {
+        // cenario
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Book filtro = Book.builder().title("Aventuras").build();
+        when(repository.findViewContent(Mockito.any(Specification.class), Mockito.eq(pageRequest)))
+                .thenReturn(List.of(BookDTO.builder().id(1L).title("As aventuras").build()));
+        when(repository.countMatching(Mockito.any(Specification.class))).thenReturn(50L, 51L);
+        when(repository.save(Mockito.any(Book.class))).thenReturn(Book.builder().id(2L).isbn("54321").build());
+
+        // execucao
+        BookPage primeira = bookService.findViews(filtro, null, pageRequest, BookTotal.EXACT);
+        BookPage emCache = bookService.findViews(Book.builder().title("aventuras").build(), null, pageRequest, null);
+        bookService.save(Book.builder().title("Aventuras 2").author("Fulano").isbn("54321").build());
+        BookPage depoisDaEscrita = bookService.findViews(filtro, null, pageRequest, BookTotal.EXACT);
+
+        // verificacao
+        assertThat(((Page<BookDTO>) primeira.books()).getTotalElements()).isEqualTo(50);
+        assertThat(emCache.total()).isEqualTo(BookTotal.EXACT);
+        assertThat(((Page<BookDTO>) emCache.books()).getTotalElements()).isEqualTo(50);
+        assertThat(((Page<BookDTO>) depoisDaEscrita.books()).getTotalElements()).isEqualTo(51);
+        verify(repository, Mockito.times(2)).countMatching(Mockito.any(Specification.class));
+    }
+
+    @Test
+    void deveriaDarPisoDoTotalDeFiltroRaroEContarQuandoSeTornaComum() {
+        // cenario
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Book filtro = Book.builder().author("Fulano").build();
+        when(repository.findViewContent(Mockito.any(Specification.class), Mockito.eq(pageRequest)))
+                .thenReturn(List.of(BookDTO.builder().id(1L).author("Fulano").build()));
+        when(repository.countUpTo(Mockito.any(Specification.class), Mockito.eq(1000))).thenReturn(1000L);
+        when(repository.countMatching(Mockito.any(Specification.class))).thenReturn(4321L);
+
+        // execucao
+        BookPage primeira = bookService.findViews(filtro, null, pageRequest, null);
+        BookPage segunda = bookService.findViews(filtro, null, pageRequest, null);
+        BookPage terceira = bookService.findViews(filtro, null, pageRequest, null);
+
+        // verificacao
+        assertThat(primeira.total()).isEqualTo(BookTotal.LOWER_BOUND);
+        assertThat(((Page<BookDTO>) primeira.books()).getTotalElements()).isEqualTo(1000);
+        assertThat(segunda.total()).isEqualTo(BookTotal.LOWER_BOUND);
+        assertThat(terceira.total()).isEqualTo(BookTotal.EXACT);
+        assertThat(((Page<BookDTO>) terceira.books()).getTotalElements()).isEqualTo(4321);
+        verify(repository, Mockito.times(1)).countMatching(Mockito.any(Specification.class));
+    }
+
+    @Test
+    void deveriaBuscarViewsSemTotalQuandoPedido() {
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        SliceImpl<BookDTO> slice = new SliceImpl<>(List.of(BookDTO.builder().id(1L).build()), pageRequest, true);
+        when(repository.findViewSlice(Mockito.any(Specification.class), Mockito.eq(pageRequest))).thenReturn(slice);
+
+        BookPage resultado = bookService.findViews(Book.builder().build(), null, pageRequest, BookTotal.NONE);
+
+        assertThat(resultado.total()).isEqualTo(BookTotal.NONE);
+        assertThat(resultado.books()).isSameAs(slice);
+        verify(repository, Mockito.never()).countMatching(Mockito.any(Specification.class));
+        verify(repository, Mockito.never()).countUpTo(Mockito.any(Specification.class), Mockito.anyInt());
+    }
+
+    @Test
+    void naoDeveriaConsultarIsbnNoBancoQuandoDiretorioGarantirQueEhNovo() {
+        Book book = createValidBook();
+        when(repository.streamIsbnIndex()).thenReturn(Stream.empty());
+        when(repository.save(book)).thenReturn(Book.builder().id(1L).isbn("12345").build());
+        isbnDirectory.load();
+
+        bookService.save(book);
+
+        verify(repository, Mockito.never()).existsByIsbn(Mockito.anyString());
+        assertThat(isbnDirectory.idOf("12345")).contains(1L);
+    }
+
+    @Test
+    void deveriaObterBookPorIsbnPeloDiretorio() {
+        Book book = createValidBook();
+        book.setId(1L);
+        when(repository.streamIsbnIndex()).thenReturn(Stream.of(isbnView(1L, "12345")));
+        when(repository.findById(1L)).thenReturn(Optional.of(book));
+        isbnDirectory.load();
+
+        Optional<Book> foundBook = bookService.getBookByIsbn("12345");
+
+        assertThat(foundBook).contains(book);
+        verify(repository, Mockito.never()).findByIsbn(Mockito.anyString());
+    }
+
+    @Test
+    void deveriaRetornarVazioAoObterBookPorIsbnInexistente() {
+        when(repository.streamIsbnIndex()).thenReturn(Stream.empty());
+        isbnDirectory.load();
+
+        Optional<Book> foundBook = bookService.getBookByIsbn("999");
+
+        assertThat(foundBook).isEmpty();
+        verify(repository, Mockito.never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void deveriaConsultarBancoPorIsbnAntesDeCarregarDiretorio() {
+        Book book = createValidBook();
+        when(repository.findByIsbn("12345")).thenReturn(Optional.of(book));
+
+        Optional<Book> foundBook = bookService.getBookByIsbn("12345");
+
+        assertThat(foundBook).contains(book);
+    }
+
+    @Test
+    void deveriaBuscarBookPorCursor() {
+        Book primeiro = Book.builder().id(1L).title("A").build();
+        Book segundo = Book.builder().id(2L).title("B").build();
+        Book terceiro = Book.builder().id(3L).title("C").build();
+        Sort.Order order = Sort.Order.asc("title");
+        when(repository.findAfter(Mockito.any(Example.class), Mockito.eq(order), Mockito.isNull(), Mockito.eq(3)))
+                .thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+
+        CursorSliceDTO<Book> resultado = bookService.findAfter(createValidBook(), "", Sort.by(order), 2);
+
+        assertThat(resultado.content()).containsExactly(primeiro, segundo);
+        assertThat(resultado.next()).isNotNull();
+        assertThat(BookCursor.decode(resultado.next(), order)).isEqualTo(new BookCursor(order, "B", 2L));
+    }
+
+    @Test
+    void deveriaRetornarUltimaPaginaSemCursor() {
+        Sort.Order order = Sort.Order.asc("id");
+        BookCursor cursor = new BookCursor(order, "2", 2L);
+        when(repository.findAfter(Mockito.any(Example.class), Mockito.eq(order), Mockito.eq(cursor), Mockito.eq(3)))
+                .thenReturn(List.of(Book.builder().id(3L).build()));
+
+        CursorSliceDTO<Book> resultado = bookService.findAfter(createValidBook(), cursor.encode(), Sort.unsorted(), 2);
+
+        assertThat(resultado.content()).hasSize(1);
+        assertThat(resultado.next()).isNull();
+    }
+
+    @Test
+    void deveriaLancarErroComCursorDeOutraOrdenacao() {
+        String cursor = new BookCursor(Sort.Order.asc("title"), "B", 2L).encode();
+
+        Throwable throwable = Assertions.catchThrowable(() -> bookService.findAfter(createValidBook(), cursor, Sort.by("author"), 2));
+
+        assertThat(throwable).isInstanceOf(BusinessException.class).hasMessage("Cursor inválido");
+    }
+
+    private static BookIsbnView isbnView(Long id, String isbn) {
+        return new BookIsbnView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+        };
+    }
+
     private static Book createValidBook() {
         return Book.builder().author("Fulano").title("As aventuras").isbn("12345").build();
     }
@@ -0,0 +1,134 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.impl.GroupCommitLoanService;
+import com.treinamento.springboot.libraryapi.service.impl.LoanServiceImpl;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupCommitLoanServiceTest {
+
+    @Autowired
+    BookRepository bookRepository;
+    @Autowired
+    LoanRepository loanRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    GroupCommitLoanService loanService;
+
+    @BeforeEach
+    void setUp() {
+        LoanedBooks loanedBooks = new LoanedBooks(loanRepository);
+        BookCountCache bookCounts = new BookCountCache(1000, Duration.ofSeconds(30), 3);
+        loanService = new GroupCommitLoanService(loanRepository, transactionManager, loanedBooks, bookCounts,
+                new LoanServiceImpl(loanRepository, transactionManager, loanedBooks, bookCounts, 16),
+                50, Duration.ofMillis(20), 1000, Duration.ofSeconds(10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        loanService.destroy();
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    void deveriaGravarEmprestimosConcorrentesEmLote() {
+        // cenario
+        List<Book> books = IntStream.range(0, 20)
+                .mapToObj(i -> bookRepository.save(Book.builder().title("Aventuras").author("Fulano").isbn("g-" + i).build()))
+                .toList();
+
+        // execucao
+        List<Loan> salvos;
+        try (ExecutorService clientes = Executors.newFixedThreadPool(20)) {
+            salvos = books.stream()
+                    .map(book -> CompletableFuture.supplyAsync(() -> loanService.save(loan(book)), clientes))
+                    .toList()
+                    .stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+        }
+
+        // verificacao
+        assertThat(salvos).allSatisfy(loan -> assertThat(loan.getId()).isNotNull());
+        assertThat(loanRepository.count()).isEqualTo(20);
+    }
+
+    @Test
+    void deveriaRecusarLivroJaEmprestadoSemAfetarOsDemais() {
+        Book emprestado = bookRepository.save(Book.builder().title("Aventuras").author("Fulano").isbn("g-1").build());
+        Book livre = bookRepository.save(Book.builder().title("Aventuras").author("Fulano").isbn("g-2").build());
+        loanService.save(loan(emprestado));
+
+        CompletableFuture<Loan> repetido = CompletableFuture.supplyAsync(() -> loanService.save(loan(emprestado)));
+        CompletableFuture<Loan> valido = CompletableFuture.supplyAsync(() -> loanService.save(loan(livre)));
+
+        assertThat(catchThrowable(repetido::join)).hasCauseInstanceOf(BusinessException.class)
+                .hasMessageContaining("Book already loaned");
+        assertThat(valido.join().getId()).isNotNull();
+        assertThat(loanRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveriaFalharOsChamadoresEPararAFilaQuandoOLoteLancarError() throws InterruptedException {
+        // cenario
+        LoanRepository quebrado = Mockito.mock(LoanRepository.class);
+        when(quebrado.findActiveBookIds(Mockito.any())).thenThrow(new StackOverflowError());
+        LoanedBooks loanedBooks = new LoanedBooks(quebrado);
+        BookCountCache bookCounts = new BookCountCache(1000, Duration.ofSeconds(30), 3);
+        GroupCommitLoanService service = new GroupCommitLoanService(quebrado, transactionManager, loanedBooks, bookCounts,
+                new LoanServiceImpl(quebrado, transactionManager, loanedBooks, bookCounts, 16),
+                50, Duration.ofMillis(20), 1000, Duration.ofSeconds(10));
+        Book book = Book.builder().id(1L).isbn("g-erro").build();
+
+        try {
+            // execucao
+            Throwable primeiro = catchThrowable(() -> service.save(loan(book)));
+            Throwable depois = catchThrowable(() -> service.save(loan(book)));
+
+            // verificacao
+            assertThat(primeiro).isInstanceOf(StackOverflowError.class);
+            assertThat(depois).isInstanceOf(IllegalStateException.class).hasMessage("Loan queue is shut down");
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static Loan loan(Book book) {
+        return Loan.builder().customer("Fulano").book(book).loanDate(LocalDate.now()).build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.treinamento.springboot.libraryapi.service;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.exception.BusinessException;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.impl.LoanServiceImpl;
+import com.treinamento.springboot.libraryapi.service.index.LoanedBooks;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class LoanServiceTest {
+
+    LoanService loanService;
+    @MockBean
+    LoanRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.loanService = new LoanServiceImpl(repository, new NoOpTransactionManager(), new LoanedBooks(repository), new BookCountCache(1000, Duration.ofSeconds(30), 3), 16);
+    }
+
+    @Test
+    void deveriaSalvarEmprestimo() {
+        // cenario
+        Loan loan = createLoan();
+        Loan loanSalvo = createLoan();
+        loanSalvo.setId(1L);
+        when(repository.existsByBookAndReturnedFalse(loan.getBook())).thenReturn(false);
+        when(repository.saveAndFlush(loan)).thenReturn(loanSalvo);
+
+        // execucao
+        Loan resultado = loanService.save(loan);
+
+        // verificacao
+        assertThat(resultado.getId()).isEqualTo(1L);
+        assertThat(loan.getReturned()).isFalse();
+    }
+
+    @Test
+    void deveriaLancarErroAoEmprestarLivroJaEmprestado() {
+        Loan loan = createLoan();
+        when(repository.existsByBookAndReturnedFalse(loan.getBook())).thenReturn(true);
+
+        Throwable throwable = Assertions.catchThrowable(() -> loanService.save(loan));
+
+        assertThat(throwable).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+        verify(repository, Mockito.never()).saveAndFlush(loan);
+    }
+
+    @Test
+    void deveriaTraduzirViolacaoDeEmprestimoAtivoDoBanco() {
+        Loan loan = createLoan();
+        when(repository.existsByBookAndReturnedFalse(loan.getBook())).thenReturn(false);
+        when(repository.saveAndFlush(loan)).thenThrow(new DataIntegrityViolationException("UK_LOAN_ACTIVE_BOOK_INDEX_2 ON PUBLIC.LOAN(ACTIVE_BOOK_ID)"));
+
+        Throwable throwable = Assertions.catchThrowable(() -> loanService.save(loan));
+
+        assertThat(throwable).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+    }
+
+    @Test
+    void naoDeveriaMarcarLivroComoEmprestadoQuandoOBancoJaNaoTemEmprestimoAberto() {
+        // cenario
+        when(repository.streamActiveBookIds()).thenReturn(Stream.empty());
+        LoanedBooks loanedBooks = new LoanedBooks(repository);
+        loanedBooks.load();
+        loanService = new LoanServiceImpl(repository, new NoOpTransactionManager(), loanedBooks, new BookCountCache(1000, Duration.ofSeconds(30), 3), 16);
+        Loan loan = createLoan();
+        when(repository.saveAndFlush(loan)).thenThrow(new DataIntegrityViolationException("UK_LOAN_ACTIVE_BOOK_INDEX_2 ON PUBLIC.LOAN(ACTIVE_BOOK_ID)"));
+        when(repository.existsByBookAndReturnedFalse(loan.getBook())).thenReturn(false);
+
+        // execucao
+        Throwable throwable = Assertions.catchThrowable(() -> loanService.save(loan));
+
+        // verificacao
+        assertThat(throwable).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+        assertThat(loanedBooks.isLoaned(1L)).contains(false);
+    }
+
+    @Test
+    void naoDeveriaMarcarLivroComoEmprestadoEmOutraViolacaoDoBanco() {
+        // cenario
+        when(repository.streamActiveBookIds()).thenReturn(Stream.empty());
+        LoanedBooks loanedBooks = new LoanedBooks(repository);
+        loanedBooks.load();
+        loanService = new LoanServiceImpl(repository, new NoOpTransactionManager(), loanedBooks, new BookCountCache(1000, Duration.ofSeconds(30), 3), 16);
+        Loan loan = createLoan();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("FK_LOAN_BOOK: PUBLIC.LOAN FOREIGN KEY(ID_BOOK)");
+        when(repository.saveAndFlush(loan)).thenThrow(violation);
+
+        // execucao
+        Throwable throwable = Assertions.catchThrowable(() -> loanService.save(loan));
+
+        // verificacao
+        assertThat(throwable).isSameAs(violation);
+        assertThat(loanedBooks.isLoaned(1L)).contains(false);
+    }
+
+    @Test
+    void deveriaLancarErroAoSalvarEmprestimoSemLivro() {
+        Loan loan = Loan.builder().customer("Fulano").build();
+
+        Throwable throwable = Assertions.catchThrowable(() -> loanService.save(loan));
+
+        assertThat(throwable).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void naoDeveriaConsultarEmprestimoAtivoQuandoBitmapGarantirQueLivroEstaLivre() {
+        // cenario
+        when(repository.streamActiveBookIds()).thenReturn(Stream.empty());
+        LoanedBooks loanedBooks = new LoanedBooks(repository);
+        loanedBooks.load();
+        loanService = new LoanServiceImpl(repository, new NoOpTransactionManager(), loanedBooks, new BookCountCache(1000, Duration.ofSeconds(30), 3), 16);
+        Loan loan = createLoan();
+        when(repository.saveAndFlush(loan)).thenReturn(loan);
+
+        // execucao
+        loanService.save(loan);
+
+        // verificacao
+        verify(repository, Mockito.never()).existsByBookAndReturnedFalse(Mockito.any());
+        assertThat(loanedBooks.isLoaned(1L)).contains(true);
+    }
+
+    @Test
+    void deveriaDevolverEmprestimoELiberarLivro() {
+        // cenario
+        when(repository.streamActiveBookIds()).thenReturn(Stream.of(1L));
+        LoanedBooks loanedBooks = new LoanedBooks(repository);
+        loanedBooks.load();
+        loanService = new LoanServiceImpl(repository, new NoOpTransactionManager(), loanedBooks, new BookCountCache(1000, Duration.ofSeconds(30), 3), 16);
+        Loan loan = createLoan();
+        loan.setId(5L);
+        loan.setReturned(false);
+        when(repository.findWithBookById(5L)).thenReturn(Optional.of(loan));
+        when(repository.saveAndFlush(loan)).thenReturn(loan);
+
+        // execucao
+        Optional<Loan> devolvido = loanService.returnLoan(5L);
+
+        // verificacao
+        assertThat(devolvido).hasValueSatisfying(l -> assertThat(l.getReturned()).isTrue());
+        assertThat(loanedBooks.isLoaned(1L)).contains(false);
+    }
+
+    @Test
+    void deveriaRetornarVazioAoDevolverEmprestimoInexistente() {
+        when(repository.findWithBookById(5L)).thenReturn(Optional.empty());
+
+        assertThat(loanService.returnLoan(5L)).isEmpty();
+    }
+
+    private static Loan createLoan() {
+        Book book = Book.builder().id(1L).isbn("123").build();
+        return Loan.builder().customer("Fulano").book(book).loanDate(LocalDate.now()).build();
+    }
+
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, org.springframework.transaction.TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.treinamento.springboot.libraryapi.service.cache;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookCacheTest {
+
+    BookCache bookCache = new BookCache(2, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @Test
+    void deveriaContarAcertosEFalhas() {
+        AtomicInteger loads = new AtomicInteger();
+
+        bookCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(BookDTO.builder().id(id).build());
+        });
+        bookCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(bookCache.stats().hitCount()).isEqualTo(1);
+        assertThat(bookCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deveriaDevolverAMesmaProjecaoNosAcertos() {
+        bookCache.put(Book.builder().id(1L).title("Original").build());
+
+        BookDTO primeira = bookCache.get(1L, id -> Optional.empty()).orElseThrow();
+        BookDTO segunda = bookCache.get(1L, id -> Optional.empty()).orElseThrow();
+
+        assertThat(primeira.getTitle()).isEqualTo("Original");
+        assertThat(segunda).isSameAs(primeira);
+    }
+
+    @Test
+    void naoDeveriaExporEntidadeLigadaAoCache() {
+        bookCache.put(Book.builder().id(1L).title("Original").build());
+
+        bookCache.getBook(1L, id -> Optional.empty()).orElseThrow().setTitle("Alterado");
+
+        assertThat(bookCache.peek(1L)).get().extracting(BookDTO::getTitle).isEqualTo("Original");
+    }
+
+    @Test
+    void deveriaRecarregarAposRemocao() {
+        bookCache.get(1L, id -> Optional.empty());
+
+        bookCache.evict(1L);
+        Optional<Book> book = bookCache.getBook(1L, id -> Optional.of(Book.builder().id(id).build()));
+
+        assertThat(book).isPresent();
+    }
+}
@@ -0,0 +1,46 @@
+package com.treinamento.springboot.libraryapi.service.cache;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookCountCacheTest {
+
+    BookCountCache bookCounts = new BookCountCache(100, Duration.ofMinutes(1), 3);
+
+    @Test
+    void deveriaDescartarSomenteTotaisPorDisponibilidadeQuandoEmprestimoMudar() {
+        BookCountCache.Key todos = BookCountCache.key(Book.builder().title("Aventuras").build(), null);
+        BookCountCache.Key disponiveis = BookCountCache.key(Book.builder().title("aventuras").build(), true);
+        bookCounts.put(todos, 10, bookCounts.generation());
+        bookCounts.put(disponiveis, 7, bookCounts.generation());
+
+        bookCounts.invalidateAvailability();
+
+        assertThat(bookCounts.get(BookCountCache.key(Book.builder().title("AVENTURAS").build(), null))).contains(10L);
+        assertThat(bookCounts.get(disponiveis)).isEmpty();
+    }
+
+    @Test
+    void naoDeveriaGuardarTotalContadoAntesDeUmaEscrita() {
+        BookCountCache.Key todos = BookCountCache.key(Book.builder().build(), null);
+        long generation = bookCounts.generation();
+
+        bookCounts.invalidate();
+        bookCounts.put(todos, 10, generation);
+
+        assertThat(bookCounts.get(todos)).isEmpty();
+    }
+
+    @Test
+    void deveriaConsiderarFiltroComumDepoisDeAlgunsPedidos() {
+        BookCountCache.Key filtro = BookCountCache.key(Book.builder().author("Fulano").build(), null);
+
+        assertThat(bookCounts.isCommon(filtro)).isFalse();
+        assertThat(bookCounts.isCommon(filtro)).isFalse();
+        assertThat(bookCounts.isCommon(filtro)).isTrue();
+    }
+}
@@ -0,0 +1,160 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.dto.BookDTO;
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import com.treinamento.springboot.libraryapi.service.BookService;
+import com.treinamento.springboot.libraryapi.service.cache.BookCache;
+import com.treinamento.springboot.libraryapi.service.cache.BookCountCache;
+import com.treinamento.springboot.libraryapi.service.impl.BookServiceImpl;
+import com.treinamento.springboot.libraryapi.service.io.BookTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+class BookSearchIndexTest {
+
+    @Autowired
+    TestEntityManager testEntityManager;
+    @Autowired
+    BookRepository repository;
+    @Autowired
+    LoanRepository loanRepository;
+
+    BookSearchIndex searchIndex;
+    BookService bookService;
+
+    @BeforeEach
+    void setUp() {
+        testEntityManager.persist(Book.builder().title("As Aventuras de Sherlock").author("Arthur Conan Doyle").isbn("1").build());
+        testEntityManager.persist(Book.builder().title("O Cão dos Baskervilles").author("Arthur Conan Doyle").isbn("2").build());
+        testEntityManager.persist(Book.builder().title("Aventuras na Ilha").author("Robert Stevenson").isbn("3").build());
+        testEntityManager.persist(Book.builder().title("100% Aventura_").author("Fulano").isbn("4").build());
+        searchIndex = new BookSearchIndex(repository, 1000);
+        searchIndex.load();
+        bookService = new BookServiceImpl(repository, new IsbnDirectory(repository, 1000, 0.01), searchIndex,
+                new BookVersions(repository),
+                new BookCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+                new LoanedBooks(loanRepository), new BookCountCache(1000, Duration.ofSeconds(30), 3), 1000, 1000);
+    }
+
+    @Test
+    void deveriaRetornarOsMesmosResultadosDaBuscaPorExemplo() {
+        List<Book> filtros = List.of(
+                Book.builder().title("aventura").build(),
+                Book.builder().title("AVENTURAS").author("doyle").build(),
+                Book.builder().author("arthur").build(),
+                Book.builder().title("% Av").build(),
+                Book.builder().title("a_").build(),
+                Book.builder().title("ura_").build(),
+                Book.builder().title("inexistente").build(),
+                Book.builder().title("av").isbn("3").build());
+
+        for (Book filtro : filtros) {
+            PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("isbn"));
+            List<Book> esperado = repository.findAll(example(filtro), pageRequest).getContent();
+
+            assertThat(bookService.find(filtro, pageRequest).getContent())
+                    .as("filtro %s", filtro)
+                    .containsExactlyElementsOf(esperado);
+            assertThat(bookService.findViews(filtro, null, pageRequest, BookTotal.EXACT).books().getContent())
+                    .as("views filtro %s", filtro)
+                    .extracting(BookDTO::getId)
+                    .containsExactlyElementsOf(esperado.stream().map(Book::getId).toList());
+        }
+    }
+
+    @Test
+    void deveriaAtualizarIndiceAoAlterarERemoverLivro() {
+        Book book = repository.findByIsbn("3").orElseThrow();
+
+        book.setTitle("Viagem ao Centro");
+        searchIndex.register(book);
+
+        assertThat(searchIndex.candidates("aventuras", null)).hasValueSatisfying(ids -> assertThat(ids).doesNotContain(book.getId()));
+        assertThat(searchIndex.candidates("centro", null)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(book.getId()));
+
+        searchIndex.unregister(book);
+
+        assertThat(searchIndex.candidates("centro", null)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void deveriaManterAlteracoesDepoisDeCompactarAsListas() {
+        searchIndex.register(Book.builder().id(999L).title("Viagem ao Centro").author("Julio Verne").build());
+        searchIndex.register(Book.builder().id(999L).title("Vinte Mil Léguas").author("Julio Verne").build());
+
+        for (long id = 1_000L; id < 11_000L; id++) {
+            searchIndex.register(Book.builder().id(id).build());
+        }
+
+        assertThat(searchIndex.candidates("centro", null)).hasValueSatisfying(ids -> assertThat(ids).doesNotContain(999L));
+        assertThat(searchIndex.candidates("vinte mil", "verne")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(999L));
+    }
+
+    @Test
+    void naoDeveriaRestringirBuscaComTermosCurtos() {
+        assertThat(searchIndex.candidates("av", "ar")).isEmpty();
+    }
+
+    private static Example<Book> example(Book filter) {
+        return Example.of(filter, ExampleMatcher
+                .matching()
+                .withIgnoreCase()
+                .withIgnoreNullValues()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+    }
+
+    @Test
+    void deveriaFiltrarDisponiveisPeloBitmapOuPelaSubconsulta() {
+        // cenario
+        Book emprestado = repository.findByIsbn("1").orElseThrow();
+        testEntityManager.persist(Loan.builder().customer("Fulano").book(emprestado).loanDate(LocalDate.now())
+                .returned(false).build());
+        testEntityManager.flush();
+        LoanedBooks carregado = new LoanedBooks(loanRepository);
+        carregado.load();
+        BookService comBitmap = bookService(carregado);
+        BookService semBitmap = bookService(new LoanedBooks(loanRepository));
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("isbn"));
+
+        for (BookService service : List.of(comBitmap, semBitmap)) {
+            for (Book filtro : List.of(Book.builder().build(), Book.builder().title("aventuras").build())) {
+                // execucao
+                List<String> disponiveis = service.findViews(filtro, true, pageRequest, null).books().map(BookDTO::getIsbn).getContent();
+                List<String> emprestados = service.findViews(filtro, false, pageRequest, null).books().map(BookDTO::getIsbn).getContent();
+
+                // verificacao
+                assertThat(disponiveis).doesNotContain("1").isNotEmpty();
+                assertThat(emprestados).containsExactly("1");
+            }
+        }
+    }
+
+    private BookService bookService(LoanedBooks loanedBooks) {
+        return new BookServiceImpl(repository, new IsbnDirectory(repository, 1000, 0.01), searchIndex,
+                new BookVersions(repository),
+                new BookCache(1000, Duration.ofMinutes(1), Duration.ofSeconds(10)),
+                loanedBooks, new BookCountCache(1000, Duration.ofSeconds(30), 3), 1000, 1000);
+    }
+}
@@ -0,0 +1,53 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookVersionView;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class BookVersionsTest {
+
+    BookRepository repository = Mockito.mock(BookRepository.class);
+    BookVersions bookVersions = new BookVersions(repository);
+
+    @Test
+    void deveriaManterVersaoMaisRecenteAoCarregar() {
+        bookVersions.register(Book.builder().id(1L).version(3L).build());
+        when(repository.streamVersionIndex()).thenReturn(Stream.of(view(1L, 2L), view(2L, 0L)));
+
+        bookVersions.load();
+
+        assertThat(bookVersions.versionOf(1L)).contains(3L);
+        assertThat(bookVersions.versionOf(2L)).contains(0L);
+    }
+
+    @Test
+    void naoDeveriaRecarregarLivroRemovidoDuranteACarga() {
+        bookVersions.unregister(Book.builder().id(1L).build());
+        when(repository.streamVersionIndex()).thenReturn(Stream.of(view(1L, 2L)));
+
+        bookVersions.load();
+
+        assertThat(bookVersions.versionOf(1L)).isEmpty();
+    }
+
+    private static BookVersionView view(Long id, Long version) {
+        return new BookVersionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package com.treinamento.springboot.libraryapi.service.index;
+
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class LoanedBooksTest {
+
+    LoanRepository repository = Mockito.mock(LoanRepository.class);
+    LoanedBooks loanedBooks = new LoanedBooks(repository);
+
+    @Test
+    void naoDeveriaResponderAntesDaCarga() {
+        loanedBooks.lend(1L);
+
+        assertThat(loanedBooks.isLoaned(1L)).isEmpty();
+        assertThat(loanedBooks.loanedIds(10)).isEmpty();
+    }
+
+    @Test
+    void deveriaCarregarEmprestimosAtivosEAcompanharEmprestimosEDevolucoes() {
+        when(repository.streamActiveBookIds()).thenReturn(Stream.of(1L, 3L));
+        loanedBooks.load();
+
+        loanedBooks.lend(2L);
+        loanedBooks.release(3L);
+
+        assertThat(loanedBooks.isLoaned(1L)).contains(true);
+        assertThat(loanedBooks.isLoaned(2L)).contains(true);
+        assertThat(loanedBooks.isLoaned(3L)).contains(false);
+        assertThat(loanedBooks.loanedIds(10)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 2L));
+        assertThat(loanedBooks.loanedIds(1)).isEmpty();
+    }
+
+    @Test
+    void naoDeveriaRecarregarLivroDevolvidoDuranteACarga() {
+        loanedBooks.release(1L);
+        when(repository.streamActiveBookIds()).thenReturn(Stream.of(1L, 2L));
+
+        loanedBooks.load();
+
+        assertThat(loanedBooks.isLoaned(1L)).contains(false);
+        assertThat(loanedBooks.isLoaned(2L)).contains(true);
+    }
+
+    @Test
+    void deveriaFiltrarCandidatosPorDisponibilidade() {
+        when(repository.streamActiveBookIds()).thenReturn(Stream.of(1L));
+        loanedBooks.load();
+
+        assertThat(loanedBooks.retain(Set.of(1L, 2L), true)).contains(Set.of(2L));
+        assertThat(loanedBooks.retain(Set.of(1L, 2L), false)).contains(Set.of(1L));
+        assertThat(loanedBooks.retain(Set.of(1L, Long.MAX_VALUE), true)).isEmpty();
+    }
+}
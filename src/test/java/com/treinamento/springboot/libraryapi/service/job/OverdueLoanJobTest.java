@@ -0,0 +1,112 @@
+package com.treinamento.springboot.libraryapi.service.job;
+
+import com.treinamento.springboot.libraryapi.api.model.entity.Book;
+import com.treinamento.springboot.libraryapi.api.model.entity.JobCheckpoint;
+import com.treinamento.springboot.libraryapi.api.model.entity.Loan;
+import com.treinamento.springboot.libraryapi.api.model.repository.BookRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.JobCheckpointRepository;
+import com.treinamento.springboot.libraryapi.api.model.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OverdueLoanJobTest {
+
+    static final LocalDate HOJE = LocalDate.of(2023, 3, 31);
+
+    @Autowired
+    BookRepository bookRepository;
+    @Autowired
+    LoanRepository loanRepository;
+    @Autowired
+    JobCheckpointRepository checkpointRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    OverdueLoanJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new OverdueLoanJob(loanRepository, checkpointRepository, transactionManager, Clock.systemUTC(), 14, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.destroy();
+        loanRepository.deleteAll();
+        bookRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void deveriaMarcarEmprestimosAtrasadosEmBlocos() {
+        // cenario
+        List<Loan> atrasados = List.of(
+                loan("1", HOJE.minusDays(40), false),
+                loan("2", HOJE.minusDays(30), false),
+                loan("3", HOJE.minusDays(30), false),
+                loan("4", HOJE.minusDays(20), false),
+                loan("5", HOJE.minusDays(15), false));
+        Loan devolvido = loan("6", HOJE.minusDays(30), true);
+        Loan emDia = loan("7", HOJE.minusDays(3), false);
+
+        // execucao
+        long marcados = job.scan(HOJE);
+
+        // verificacao
+        assertThat(marcados).isEqualTo(5);
+        assertThat(loanRepository.findAllById(atrasados.stream().map(Loan::getId).toList()))
+                .allSatisfy(loan -> assertThat(loan.getOverdue()).isTrue());
+        assertThat(loanRepository.findById(devolvido.getId())).get().extracting(Loan::getOverdue).isEqualTo(false);
+        assertThat(loanRepository.findById(emDia.getId())).get().extracting(Loan::getOverdue).isEqualTo(false);
+        assertThat(checkpointRepository.findById(OverdueLoanJob.NAME)).get()
+                .extracting(JobCheckpoint::getLastLoanDate).isEqualTo(HOJE.minusDays(15));
+    }
+
+    @Test
+    void deveriaContinuarDoCheckpoint() {
+        Loan anterior = loan("1", HOJE.minusDays(40), false);
+        Loan posterior = loan("2", HOJE.minusDays(20), false);
+        checkpointRepository.save(JobCheckpoint.builder()
+                .name(OverdueLoanJob.NAME)
+                .lastLoanDate(anterior.getLoanDate())
+                .lastLoanId(anterior.getId())
+                .build());
+
+        long marcados = job.scan(HOJE);
+
+        assertThat(marcados).isEqualTo(1);
+        assertThat(loanRepository.findById(anterior.getId())).get().extracting(Loan::getOverdue).isEqualTo(false);
+        assertThat(loanRepository.findById(posterior.getId())).get().extracting(Loan::getOverdue).isEqualTo(true);
+        assertThat(job.scan(HOJE.plusDays(1))).isZero();
+    }
+
+    private Loan loan(String isbn, LocalDate loanDate, boolean returned) {
+        Book book = bookRepository.save(Book.builder().title("Aventuras").author("Fulano").isbn(isbn).build());
+        return loanRepository.save(Loan.builder()
+                .book(book)
+                .customer("Fulano")
+                .loanDate(loanDate)
+                .returned(returned)
+                .overdue(false)
+                .build());
+    }
+}